@@ -0,0 +1,309 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.IntFunction;
+
+// Implicit-feedback matrix factorization by alternating least squares (Hu, Koren and Volinsky):
+// every like is a preference of 1 held with confidence 1 + alpha, every other cell a preference
+// of 0 with confidence 1. Each half-iteration fixes one side's factors and solves a small
+// least-squares system per user (or per movie) in parallel; the unliked cells only enter
+// through one shared Gram matrix, so a solve costs time in the number of likes, not movies.
+// Movies are identified by catalog position and users by their index in the training data.
+public class AlsRecommender implements LikeModel {
+    public static final int DEFAULT_FACTORS = 16;
+    public static final int DEFAULT_ITERATIONS = 10;
+    public static final double DEFAULT_REGULARIZATION = 0.1;
+    public static final double DEFAULT_ALPHA = 10;
+
+    private static final int MAGIC = 0x414C5346;
+    private static final int VERSION = 1;
+
+    private final int factors;
+    private final double regularization;
+    private final double alpha;
+    private final int userCount;
+    private final int movieCount;
+    private final LikeMatrix likes;
+    private final long likesChecksum;
+
+    private final float[] userFactors;
+    private final float[] movieFactors;
+    // Sum of y * y^T over all movie factor vectors, kept for folding in new liked sets
+    private double[] movieGram;
+    private int iterations;
+
+    public AlsRecommender(int movieCount, int[][] likedMovies) {
+        this(new LikeMatrix(movieCount, likedMovies));
+    }
+
+    public AlsRecommender(LikeMatrix likes) {
+        this(likes, DEFAULT_FACTORS, DEFAULT_REGULARIZATION, DEFAULT_ALPHA);
+    }
+
+    // likedMovies holds each user's liked positions, sorted and without repeats
+    public AlsRecommender(int movieCount, int[][] likedMovies, int factors, double regularization, double alpha) {
+        this(new LikeMatrix(movieCount, likedMovies), factors, regularization, alpha);
+    }
+
+    public AlsRecommender(LikeMatrix likes, int factors, double regularization, double alpha) {
+        if (factors < 1) {
+            throw new IllegalArgumentException("Factor count must be at least 1");
+        }
+        if (regularization <= 0 || alpha < 0) {
+            throw new IllegalArgumentException("Regularization must be positive and alpha non-negative");
+        }
+        this.factors = factors;
+        this.regularization = regularization;
+        this.alpha = alpha;
+        this.likes = likes;
+        this.userCount = likes.getUserCount();
+        this.movieCount = likes.getMovieCount();
+
+        int[] userOffsets = likes.getUserOffsets();
+        int[] userMovies = likes.getUserMovies();
+        long checksum = movieCount;
+        for (int u = 0; u < userCount; u++) {
+            checksum = checksum * 31 + (userOffsets[u + 1] - userOffsets[u]);
+            for (int i = userOffsets[u]; i < userOffsets[u + 1]; i++) {
+                checksum = checksum * 31 + userMovies[i];
+            }
+        }
+        likesChecksum = checksum;
+
+        // Users start at zero and are solved first, so only the movie side needs a random start;
+        // a fixed seed keeps training reproducible
+        userFactors = new float[userCount * factors];
+        movieFactors = new float[movieCount * factors];
+        SplittableRandom random = new SplittableRandom(0xA15);
+        for (int i = 0; i < movieFactors.length; i++) {
+            movieFactors[i] = (float) ((random.nextDouble() - 0.5) * 0.02);
+        }
+        movieGram = gram(movieFactors, movieCount);
+    }
+
+    public int getFactors() {
+        return factors;
+    }
+
+    public int getUserCount() {
+        return userCount;
+    }
+
+    public int getMovieCount() {
+        return movieCount;
+    }
+
+    // Completed iterations, including those read from a factor file
+    public int getIterations() {
+        return iterations;
+    }
+
+    public float[] getUserFactors(int user) {
+        return Arrays.copyOfRange(userFactors, user * factors, (user + 1) * factors);
+    }
+
+    public float[] getMovieFactors(int movie) {
+        return Arrays.copyOfRange(movieFactors, movie * factors, (movie + 1) * factors);
+    }
+
+    public void train(int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            iterate();
+        }
+    }
+
+    // One user half-step followed by one movie half-step
+    public void iterate() {
+        solveSide(userCount, likes.getUserOffsets(), likes.getUserMovies(), movieFactors, movieGram, userFactors);
+        solveSide(movieCount, likes.getLikerOffsets(), likes.getLikers(), userFactors, gram(userFactors, userCount), movieFactors);
+        movieGram = gram(movieFactors, movieCount);
+        iterations++;
+    }
+
+    // Predicted preference of a trained user for a movie
+    public double score(int user, int movie) {
+        double score = 0;
+        for (int f = 0; f < factors; f++) {
+            score += userFactors[user * factors + f] * movieFactors[movie * factors + f];
+        }
+        return score;
+    }
+
+    // Solves each row's factors against the fixed side. Rows are split into chunks that each
+    // reuse one set of scratch arrays.
+    private void solveSide(int rowCount, int[] offsets, int[] entries, float[] fixed, double[] fixedGram, float[] target) {
+        Chunks.forEach(rowCount, (chunk, start, end) -> {
+            double[] matrix = new double[factors * factors];
+            double[] vector = new double[factors];
+            for (int row = start; row < end; row++) {
+                solveRow(entries, offsets[row], offsets[row + 1], fixed, fixedGram, matrix, vector);
+                for (int f = 0; f < factors; f++) {
+                    target[row * factors + f] = (float) vector[f];
+                }
+            }
+        });
+    }
+
+    // x = (G + alpha * sum(y y^T) + lambda * I)^-1 * (1 + alpha) * sum(y), the sums running over
+    // the fixed-side vectors of entries[start, end); the result is left in vector
+    private void solveRow(int[] entries, int start, int end, float[] fixed, double[] fixedGram, double[] matrix, double[] vector) {
+        System.arraycopy(fixedGram, 0, matrix, 0, matrix.length);
+        Arrays.fill(vector, 0);
+        for (int f = 0; f < factors; f++) {
+            matrix[f * factors + f] += regularization;
+        }
+        for (int i = start; i < end; i++) {
+            int base = entries[i] * factors;
+            for (int a = 0; a < factors; a++) {
+                double ya = fixed[base + a];
+                vector[a] += (1 + alpha) * ya;
+                for (int b = 0; b <= a; b++) {
+                    matrix[a * factors + b] += alpha * ya * fixed[base + b];
+                }
+            }
+        }
+        choleskySolve(matrix, vector, factors);
+    }
+
+    private double[] gram(float[] vectors, int count) {
+        double[][] partials = new double[Chunks.count(count)][factors * factors];
+        Chunks.forEach(count, (chunk, start, end) -> {
+            double[] partial = partials[chunk];
+            for (int row = start; row < end; row++) {
+                int base = row * factors;
+                for (int a = 0; a < factors; a++) {
+                    double ya = vectors[base + a];
+                    for (int b = 0; b <= a; b++) {
+                        partial[a * factors + b] += ya * vectors[base + b];
+                    }
+                }
+            }
+        });
+        double[] sum = new double[factors * factors];
+        for (double[] partial : partials) {
+            for (int i = 0; i < sum.length; i++) {
+                sum[i] += partial[i];
+            }
+        }
+        return sum;
+    }
+
+    // Solves A x = b in place for a symmetric positive definite A given by its lower triangle;
+    // A is overwritten with its Cholesky factor and b with x
+    private static void choleskySolve(double[] a, double[] b, int n) {
+        for (int j = 0; j < n; j++) {
+            double diagonal = a[j * n + j];
+            for (int k = 0; k < j; k++) {
+                diagonal -= a[j * n + k] * a[j * n + k];
+            }
+            diagonal = Math.sqrt(diagonal);
+            a[j * n + j] = diagonal;
+            for (int i = j + 1; i < n; i++) {
+                double value = a[i * n + j];
+                for (int k = 0; k < j; k++) {
+                    value -= a[i * n + k] * a[j * n + k];
+                }
+                a[i * n + j] = value / diagonal;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            double value = b[i];
+            for (int k = 0; k < i; k++) {
+                value -= a[i * n + k] * b[k];
+            }
+            b[i] = value / a[i * n + i];
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            double value = b[i];
+            for (int k = i + 1; k < n; k++) {
+                value -= a[k * n + i] * b[k];
+            }
+            b[i] = value / a[i * n + i];
+        }
+    }
+
+    // Folds the liked set in as a user of its own (one user half-step against the trained movie
+    // factors), scores every movie by dot product and returns the k best positions, best first,
+    // ties ordered like TopKHeap. likedMovies must be sorted; liked movies are never recommended.
+    @Override
+    public int[] recommend(int[] likedMovies, int k, IntFunction<String> titles) {
+        if (likedMovies.length == 0) return new int[0];
+
+        double[] user = new double[factors];
+        solveRow(likedMovies, 0, likedMovies.length, movieFactors, movieGram, new double[factors * factors], user);
+
+        TopKHeap heap = new TopKHeap(k, titles);
+        for (int movie = 0; movie < movieCount; movie++) {
+            if (Arrays.binarySearch(likedMovies, movie) >= 0) continue;
+            double score = 0;
+            for (int f = 0; f < factors; f++) {
+                score += user[f] * movieFactors[movie * factors + f];
+            }
+            heap.offer(movie, sortableScore((float) score));
+        }
+        return heap.drainBestFirst();
+    }
+
+    // An int that orders like the float: flipping the magnitude bits of negative values turns
+    // the sign-magnitude bit pattern into two's complement order
+    private static int sortableScore(float score) {
+        int bits = Float.floatToIntBits(score == 0 ? 0f : score);
+        return bits ^ ((bits >> 31) & Integer.MAX_VALUE);
+    }
+
+    public void write(String factorsPath) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(factorsPath)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(likesChecksum);
+            out.writeInt(userCount);
+            out.writeInt(movieCount);
+            out.writeInt(factors);
+            out.writeDouble(regularization);
+            out.writeDouble(alpha);
+            out.writeInt(iterations);
+            for (float value : userFactors) {
+                out.writeFloat(value);
+            }
+            for (float value : movieFactors) {
+                out.writeFloat(value);
+            }
+        }
+    }
+
+    // Replaces the factors with those in the file when it was written by a model trained on the
+    // same likes with the same settings. Returns false, leaving the model as it was, when the
+    // file is missing, unreadable or stale.
+    public boolean read(String factorsPath) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(factorsPath)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readLong() != likesChecksum
+                    || in.readInt() != userCount || in.readInt() != movieCount || in.readInt() != factors
+                    || in.readDouble() != regularization || in.readDouble() != alpha) {
+                return false;
+            }
+            int readIterations = in.readInt();
+            float[] readUsers = new float[userFactors.length];
+            for (int i = 0; i < readUsers.length; i++) {
+                readUsers[i] = in.readFloat();
+            }
+            float[] readMovies = new float[movieFactors.length];
+            for (int i = 0; i < readMovies.length; i++) {
+                readMovies[i] = in.readFloat();
+            }
+
+            System.arraycopy(readUsers, 0, userFactors, 0, readUsers.length);
+            System.arraycopy(readMovies, 0, movieFactors, 0, readMovies.length);
+            movieGram = gram(movieFactors, movieCount);
+            iterations = readIterations;
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
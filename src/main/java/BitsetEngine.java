@@ -0,0 +1,23 @@
+import java.util.List;
+
+// Same output as GenreEngine, computed with per-genre bitsets over the catalog; see
+// BitsetRecommender. The bitsets are rebuilt only when the catalog index or its version changes.
+public class BitsetEngine implements RecommendationEngine {
+    private CatalogIndex index;
+    private int version;
+    private BitsetRecommender recommender;
+
+    @Override
+    public void prepare(CatalogIndex index, List<User> users) {
+        if (this.index != index || version != index.getVersion()) {
+            this.recommender = new BitsetRecommender(index);
+            this.index = index;
+            this.version = index.getVersion();
+        }
+    }
+
+    @Override
+    public int[] recommend(User user) {
+        return recommender.recommendIndices(user.getLikedMoviesIds());
+    }
+}
@@ -0,0 +1,99 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Genre candidates as one bitset per genre over catalog positions, built from the catalog
+// index's posting lists; ID lookups and same-ID exclusion go through the index as well
+public class BitsetRecommender {
+    private final CatalogIndex catalogIndex;
+    private final long[][] genreBits;
+    private final int words;
+
+    // Assigns the movies genre IDs from a dictionary of their own
+    public BitsetRecommender(List<Movie> movies) {
+        this(new CatalogIndex(movies, null, GenreDictionary.index(movies)));
+    }
+
+    public BitsetRecommender(CatalogIndex index) {
+        this.catalogIndex = index;
+        this.words = (index.size() + 63) >>> 6;
+
+        this.genreBits = new long[index.getGenreCount()][words];
+        for (int genre = 0; genre < genreBits.length; genre++) {
+            for (int position : index.getGenrePosting(genre)) {
+                genreBits[genre][position >>> 6] |= 1L << position;
+            }
+        }
+    }
+
+    public int getMovieIndex(String movieId) {
+        return catalogIndex.getMovieIndex(movieId);
+    }
+
+    // Liked genres are walked in the same order as the genre engine so titles land in the
+    // output set in the same sequence and the rendered line is identical
+    public List<String> recommend(List<String> likedMoviesIds) {
+        List<String> titles = new ArrayList<>();
+        for (int index : recommendIndices(likedMoviesIds)) {
+            titles.add(catalogIndex.getTitle(index));
+        }
+        return titles;
+    }
+
+    // Catalog positions of the recommended movies, one per distinct title, in the order
+    // recommend lists their titles
+    public int[] recommendIndices(List<String> likedMoviesIds) {
+        // Liked movies are marked at their first position with the same ID, which every
+        // candidate sharing a liked ID maps to
+        long[] liked = new long[words];
+        long[] walked = new long[words];
+        BitSet seenGenres = new BitSet(genreBits.length);
+        int[] likedGenres = new int[8];
+        int likedGenreCount = 0;
+
+        for (String likedMovieId : likedMoviesIds) {
+            int index = getMovieIndex(likedMovieId);
+            if (index < 0) continue;
+
+            liked[index >>> 6] |= 1L << index;
+            for (int same = index; same >= 0; same = catalogIndex.getNextWithSameId(same)) {
+                for (int genre : catalogIndex.getGenreIds(same)) {
+                    if (seenGenres.get(genre)) continue;
+                    seenGenres.set(genre);
+                    if (likedGenreCount == likedGenres.length) {
+                        likedGenres = Arrays.copyOf(likedGenres, likedGenreCount * 2);
+                    }
+                    likedGenres[likedGenreCount++] = genre;
+                }
+            }
+        }
+
+        catalogIndex.getGenreDictionary().sortInHashSetOrder(likedGenres, likedGenreCount);
+
+        Map<String, Integer> recommendedMovies = new HashMap<>();
+        for (int g = 0; g < likedGenreCount; g++) {
+            long[] bits = genreBits[likedGenres[g]];
+            for (int w = 0; w < words; w++) {
+                long word = bits[w] & ~walked[w];
+                walked[w] |= word;
+                while (word != 0) {
+                    int index = (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    int first = catalogIndex.getFirstWithSameId(index);
+                    if ((liked[first >>> 6] & (1L << first)) == 0) {
+                        recommendedMovies.putIfAbsent(catalogIndex.getTitle(index), index);
+                    }
+                }
+            }
+        }
+        int[] recommended = new int[recommendedMovies.size()];
+        int i = 0;
+        for (int index : recommendedMovies.values()) {
+            recommended[i++] = index;
+        }
+        return recommended;
+    }
+}
@@ -0,0 +1,221 @@
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+// Read-only view of a loaded movie list with the lookups every engine shares: ID -> catalog
+// position, each position's first and next position with the same ID, and per-genre posting
+// lists.
+// Built once per movie list; the arrays it hands out are shared and must not be modified.
+// Reads go to the off-heap columns when the movies come from a MovieCatalog. The owning system
+// may append a movie between runs, which bumps getVersion.
+public class CatalogIndex {
+    private final List<Movie> movies;
+    private final MovieCatalog movieCatalog;
+    private final GenreDictionary genreDictionary;
+    private final Map<String, Integer> movieIndices;
+    private int[] firstWithSameId;
+    private int[] nextWithSameId;
+    private int[][] genrePostings;
+    private int version;
+
+    // Expects every movie's genre IDs to come from genreDictionary; movieCatalog is null unless
+    // movies is its asList() view
+    public CatalogIndex(List<Movie> movies, MovieCatalog movieCatalog, GenreDictionary genreDictionary) {
+        this.movies = movies;
+        this.movieCatalog = movieCatalog;
+        this.genreDictionary = genreDictionary;
+
+        movieIndices = new HashMap<>();
+        firstWithSameId = new int[movies.size()];
+        nextWithSameId = new int[movies.size()];
+        int[] lastWithSameId = new int[movies.size()];
+        for (int i = 0; i < movies.size(); i++) {
+            Integer first = movieIndices.putIfAbsent(idAt(i), i);
+            firstWithSameId[i] = first == null ? i : first;
+            nextWithSameId[i] = -1;
+            if (first != null) {
+                nextWithSameId[lastWithSameId[first]] = i;
+            }
+            lastWithSameId[firstWithSameId[i]] = i;
+        }
+
+        int[] postingSizes = new int[genreDictionary.size()];
+        for (int i = 0; i < movies.size(); i++) {
+            int[] genreIds = genreIdsAt(i);
+            for (int g = 0; g < genreIds.length; g++) {
+                if (!containsBefore(genreIds, g)) postingSizes[genreIds[g]]++;
+            }
+        }
+        genrePostings = new int[postingSizes.length][];
+        for (int genre = 0; genre < postingSizes.length; genre++) {
+            genrePostings[genre] = new int[postingSizes[genre]];
+            postingSizes[genre] = 0;
+        }
+        for (int i = 0; i < movies.size(); i++) {
+            int[] genreIds = genreIdsAt(i);
+            for (int g = 0; g < genreIds.length; g++) {
+                if (!containsBefore(genreIds, g)) {
+                    genrePostings[genreIds[g]][postingSizes[genreIds[g]]++] = i;
+                }
+            }
+        }
+    }
+
+    // Indexes the movie just appended to the movie list; its genre IDs must come from the
+    // dictionary, which may have grown since the index was built
+    void appendMovie() {
+        int position = movies.size() - 1;
+        if (position == firstWithSameId.length) {
+            firstWithSameId = Arrays.copyOf(firstWithSameId, Math.max(16, position * 2));
+            nextWithSameId = Arrays.copyOf(nextWithSameId, firstWithSameId.length);
+        }
+        Integer first = movieIndices.putIfAbsent(idAt(position), position);
+        firstWithSameId[position] = first == null ? position : first;
+        nextWithSameId[position] = -1;
+        if (first != null) {
+            int last = first;
+            while (nextWithSameId[last] >= 0) {
+                last = nextWithSameId[last];
+            }
+            nextWithSameId[last] = position;
+        }
+
+        if (genrePostings.length < genreDictionary.size()) {
+            int oldLength = genrePostings.length;
+            genrePostings = Arrays.copyOf(genrePostings, genreDictionary.size());
+            Arrays.fill(genrePostings, oldLength, genrePostings.length, new int[0]);
+        }
+        int[] genreIds = genreIdsAt(position);
+        for (int g = 0; g < genreIds.length; g++) {
+            if (containsBefore(genreIds, g)) continue;
+            int[] posting = genrePostings[genreIds[g]];
+            posting = Arrays.copyOf(posting, posting.length + 1);
+            posting[posting.length - 1] = position;
+            genrePostings[genreIds[g]] = posting;
+        }
+        version++;
+    }
+
+    // Changes whenever a movie is appended, so engines can tell their cached state is stale
+    public int getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return movies.size();
+    }
+
+    public List<Movie> getMovies() {
+        return Collections.unmodifiableList(movies);
+    }
+
+    public GenreDictionary getGenreDictionary() {
+        return genreDictionary;
+    }
+
+    // Column reads that skip building a Movie when the catalog is off-heap
+    public String getId(int index) {
+        return idAt(index);
+    }
+
+    public String getTitle(int index) {
+        return movieCatalog != null ? movieCatalog.getTitle(index) : movies.get(index).getMovieTitle();
+    }
+
+    public int[] getGenreIds(int index) {
+        return genreIdsAt(index);
+    }
+
+    // The constructor reads through these rather than the overridable getters
+    private String idAt(int index) {
+        return movieCatalog != null ? movieCatalog.getId(index) : movies.get(index).getMovieId();
+    }
+
+    private int[] genreIdsAt(int index) {
+        return movieCatalog != null ? movieCatalog.getGenreIds(index) : movies.get(index).getGenreIds();
+    }
+
+    // First catalog position with the ID, or -1
+    public int getMovieIndex(String movieId) {
+        Integer index = movieIndices.get(movieId);
+        return index == null ? -1 : index;
+    }
+
+    public boolean containsId(String movieId) {
+        return movieIndices.containsKey(movieId);
+    }
+
+    // Liked movies are matched by ID, so every position sharing an ID stands for the first one
+    public int getFirstWithSameId(int index) {
+        return firstWithSameId[index];
+    }
+
+    // Genres with a posting list: every genre ID any movie in the index carries is below this
+    public int getGenreCount() {
+        return genrePostings.length;
+    }
+
+    // The next catalog position with the same ID, or -1; starting from getMovieIndex this walks
+    // every movie with the ID in catalog order
+    public int getNextWithSameId(int index) {
+        return nextWithSameId[index];
+    }
+
+    // Positions of the movies with the genre, ascending
+    public int[] getGenrePosting(int genre) {
+        return genrePostings[genre];
+    }
+
+    // Sorted, distinct catalog positions of the user's known liked movies; a duplicated ID maps
+    // to its first position
+    public int[] likedPositions(User user) {
+        List<String> likedMoviesIds = user.getLikedMoviesIds();
+        int[] likedMovies = new int[likedMoviesIds.size()];
+        int likedMovieCount = 0;
+        for (String likedMovieId : likedMoviesIds) {
+            Integer likedIndex = movieIndices.get(likedMovieId);
+            if (likedIndex != null) {
+                likedMovies[likedMovieCount++] = likedIndex;
+            }
+        }
+        Arrays.sort(likedMovies, 0, likedMovieCount);
+        int distinct = 0;
+        for (int i = 0; i < likedMovieCount; i++) {
+            if (distinct == 0 || likedMovies[distinct - 1] != likedMovies[i]) {
+                likedMovies[distinct++] = likedMovies[i];
+            }
+        }
+        return Arrays.copyOf(likedMovies, distinct);
+    }
+
+    // likedPositions of every user, computed in parallel
+    public int[][] likedPositions(List<User> users) {
+        int[][] likedMovies = new int[users.size()][];
+        IntStream.range(0, users.size()).parallel().forEach(i -> likedMovies[i] = likedPositions(users.get(i)));
+        return likedMovies;
+    }
+
+    // Keeps the first position of each title in a best-first list
+    public int[] distinctTitles(int[] best) {
+        Set<String> titles = new HashSet<>();
+        int kept = 0;
+        for (int index : best) {
+            if (titles.add(getTitle(index))) {
+                best[kept++] = index;
+            }
+        }
+        return kept == best.length ? best : Arrays.copyOf(best, kept);
+    }
+
+    static boolean containsBefore(int[] values, int end) {
+        for (int i = 0; i < end; i++) {
+            if (values[i] == values[end]) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,164 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+// Binary image of a validated catalog: genres are dictionary encoded, strings are length
+// prefixed and liked movies are stored as catalog positions, with -1 marking an ID that is
+// kept verbatim because it is not in the catalog. The header records the movie ID suffix width
+// the catalog was validated with, since that decides which IDs are valid.
+public class CatalogSnapshot {
+    private static final int MAGIC = 0x4D525353;
+    private static final int VERSION = 2;
+
+    private final List<Movie> movies;
+    private final List<User> users;
+
+    public CatalogSnapshot(List<Movie> movies, List<User> users) {
+        this.movies = movies;
+        this.users = users;
+    }
+
+    public List<Movie> getMovies() {
+        return movies;
+    }
+
+    public List<User> getUsers() {
+        return users;
+    }
+
+    public static long checksum(String... filePaths) throws IOException {
+        CRC32C crc = new CRC32C();
+        byte[] buffer = new byte[1 << 16];
+        for (String filePath : filePaths) {
+            long length = 0;
+            try (InputStream in = new FileInputStream(filePath)) {
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    crc.update(buffer, 0, read);
+                    length += read;
+                }
+            }
+            for (int shift = 0; shift < 64; shift += 8) {
+                crc.update((int) (length >>> shift));
+            }
+        }
+        return crc.getValue();
+    }
+
+    public void write(String snapshotPath, long sourceChecksum) throws IOException {
+        write(snapshotPath, sourceChecksum, MovieIdRegistry.DEFAULT_SUFFIX_DIGITS);
+    }
+
+    public void write(String snapshotPath, long sourceChecksum, int movieIdDigits) throws IOException {
+        Map<String, Integer> genreIds = new HashMap<>();
+        List<String> genres = new ArrayList<>();
+        Map<String, Integer> movieIndices = new HashMap<>();
+        for (int i = 0; i < movies.size(); i++) {
+            movieIndices.putIfAbsent(movies.get(i).getMovieId(), i);
+            for (String genre : movies.get(i).getMovieGenres()) {
+                if (!genreIds.containsKey(genre)) {
+                    genreIds.put(genre, genres.size());
+                    genres.add(genre);
+                }
+            }
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(snapshotPath)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(sourceChecksum);
+            out.writeInt(movieIdDigits);
+
+            out.writeInt(genres.size());
+            for (String genre : genres) {
+                out.writeUTF(genre);
+            }
+
+            out.writeInt(movies.size());
+            for (Movie movie : movies) {
+                out.writeUTF(movie.getMovieTitle());
+                out.writeUTF(movie.getMovieId());
+                out.writeInt(movie.getMovieGenres().size());
+                for (String genre : movie.getMovieGenres()) {
+                    out.writeInt(genreIds.get(genre));
+                }
+            }
+
+            out.writeInt(users.size());
+            for (User user : users) {
+                out.writeUTF(user.getUserName());
+                out.writeUTF(user.getUserId());
+                out.writeInt(user.getLikedMoviesIds().size());
+                for (String likedMovieId : user.getLikedMoviesIds()) {
+                    Integer index = movieIndices.get(likedMovieId);
+                    out.writeInt(index == null ? -1 : index);
+                    if (index == null) {
+                        out.writeUTF(likedMovieId);
+                    }
+                }
+            }
+        }
+    }
+
+    public static CatalogSnapshot read(String snapshotPath, long sourceChecksum) {
+        return read(snapshotPath, sourceChecksum, MovieIdRegistry.DEFAULT_SUFFIX_DIGITS);
+    }
+
+    // Returns null when the snapshot is missing, unreadable, was taken from other source files or
+    // was validated with another movie ID suffix width
+    public static CatalogSnapshot read(String snapshotPath, long sourceChecksum, int movieIdDigits) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshotPath)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readLong() != sourceChecksum
+                || in.readInt() != movieIdDigits) {
+                return null;
+            }
+
+            String[] genres = new String[in.readInt()];
+            for (int g = 0; g < genres.length; g++) {
+                genres[g] = in.readUTF();
+            }
+
+            int movieCount = in.readInt();
+            List<Movie> movies = new ArrayList<>(movieCount);
+            for (int i = 0; i < movieCount; i++) {
+                String title = in.readUTF();
+                String id = in.readUTF();
+                int genreCount = in.readInt();
+                List<String> movieGenres = new ArrayList<>(genreCount);
+                for (int g = 0; g < genreCount; g++) {
+                    movieGenres.add(genres[in.readInt()]);
+                }
+                movies.add(new Movie(title, id, movieGenres));
+            }
+
+            int userCount = in.readInt();
+            List<User> users = new ArrayList<>(userCount);
+            for (int i = 0; i < userCount; i++) {
+                String name = in.readUTF();
+                String id = in.readUTF();
+                int likedCount = in.readInt();
+                List<String> likedMovies = new ArrayList<>(likedCount);
+                for (int l = 0; l < likedCount; l++) {
+                    int index = in.readInt();
+                    likedMovies.add(index < 0 ? in.readUTF() : movies.get(index).getMovieId());
+                }
+                users.add(new User(name, id, likedMovies));
+            }
+
+            return new CatalogSnapshot(movies, users);
+        } catch (IOException | RuntimeException e) {
+            // A truncated or corrupted snapshot is treated like a stale one
+            return null;
+        }
+    }
+}
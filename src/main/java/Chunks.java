@@ -0,0 +1,22 @@
+import java.util.stream.IntStream;
+
+// Splits rows [0, rowCount) into contiguous chunks for parallel loops that allocate scratch
+// space once per chunk: about four chunks per core, so uneven chunks still balance, and never
+// more chunks than rows
+public class Chunks {
+
+    public interface RangeTask {
+        void run(int chunk, int start, int end);
+    }
+
+    public static int count(int rowCount) {
+        return Math.max(1, Math.min(rowCount, Runtime.getRuntime().availableProcessors() * 4));
+    }
+
+    // Runs task once per chunk, in parallel; chunks are numbered 0 to count(rowCount) - 1
+    public static void forEach(int rowCount, RangeTask task) {
+        int chunkCount = count(rowCount);
+        IntStream.range(0, chunkCount).parallel().forEach(chunk -> task.run(chunk,
+            (int) ((long) rowCount * chunk / chunkCount), (int) ((long) rowCount * (chunk + 1) / chunkCount)));
+    }
+}
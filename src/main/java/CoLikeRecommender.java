@@ -0,0 +1,149 @@
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+// "Users who liked X also liked Y": an item x item matrix counting how many users liked both
+// movies, trimmed to each movie's strongest neighbors. It is counted from a LikeMatrix and the
+// trimmed neighbor lists are CSR arrays as well, so the model holds no per-movie objects.
+// Movies are identified by catalog position.
+public class CoLikeRecommender implements LikeModel {
+    public static final int DEFAULT_NEIGHBORS = 50;
+
+    private final int movieCount;
+    private final int neighbors;
+    private final int[] neighborOffsets;
+    private final int[] neighborMovies;
+    private final int[] neighborWeights;
+
+    // likedMovies holds each user's liked positions, sorted and without repeats
+    public CoLikeRecommender(int movieCount, int[][] likedMovies, int neighbors) {
+        this(new LikeMatrix(movieCount, likedMovies), neighbors);
+    }
+
+    public CoLikeRecommender(LikeMatrix likes, int neighbors) {
+        if (neighbors < 1) {
+            throw new IllegalArgumentException("Neighbor count must be at least 1");
+        }
+        this.movieCount = likes.getMovieCount();
+        this.neighbors = neighbors;
+
+        int movieCount = this.movieCount;
+        int[] userOffsets = likes.getUserOffsets();
+        int[] userMovies = likes.getUserMovies();
+        int[] likerOffsets = likes.getLikerOffsets();
+        int[] likers = likes.getLikers();
+
+        // Each chunk of movies gets its own dense counter row, reset after every movie through
+        // the list of entries it touched
+        int[][] rowMovies = new int[movieCount][];
+        int[][] rowWeights = new int[movieCount][];
+        Chunks.forEach(movieCount, (chunk, start, end) -> {
+            int[] counts = new int[movieCount];
+            int[] touched = new int[16];
+            long[] ranked = new long[16];
+            for (int movie = start; movie < end; movie++) {
+                int touchedCount = 0;
+                for (int l = likerOffsets[movie]; l < likerOffsets[movie + 1]; l++) {
+                    int user = likers[l];
+                    for (int i = userOffsets[user]; i < userOffsets[user + 1]; i++) {
+                        int other = userMovies[i];
+                        if (other == movie) continue;
+                        if (counts[other]++ == 0) {
+                            if (touchedCount == touched.length) {
+                                touched = Arrays.copyOf(touched, touchedCount * 2);
+                            }
+                            touched[touchedCount++] = other;
+                        }
+                    }
+                }
+
+                // Higher count first, then the smaller position, packed so one sort ranks them
+                if (ranked.length < touchedCount) {
+                    ranked = new long[Math.max(touchedCount, ranked.length * 2)];
+                }
+                for (int t = 0; t < touchedCount; t++) {
+                    int other = touched[t];
+                    ranked[t] = ((long) counts[other] << 32) | (Integer.MAX_VALUE - other);
+                    counts[other] = 0;
+                }
+                Arrays.sort(ranked, 0, touchedCount);
+
+                int kept = Math.min(neighbors, touchedCount);
+                int[] movies = new int[kept];
+                int[] weights = new int[kept];
+                for (int k = 0; k < kept; k++) {
+                    long entry = ranked[touchedCount - 1 - k];
+                    movies[k] = Integer.MAX_VALUE - (int) entry;
+                    weights[k] = (int) (entry >>> 32);
+                }
+                rowMovies[movie] = movies;
+                rowWeights[movie] = weights;
+            }
+        });
+
+        neighborOffsets = new int[movieCount + 1];
+        for (int m = 0; m < movieCount; m++) {
+            neighborOffsets[m + 1] = neighborOffsets[m] + rowMovies[m].length;
+        }
+        neighborMovies = new int[neighborOffsets[movieCount]];
+        neighborWeights = new int[neighborOffsets[movieCount]];
+        for (int m = 0; m < movieCount; m++) {
+            System.arraycopy(rowMovies[m], 0, neighborMovies, neighborOffsets[m], rowMovies[m].length);
+            System.arraycopy(rowWeights[m], 0, neighborWeights, neighborOffsets[m], rowWeights[m].length);
+        }
+    }
+
+    public int getMovieCount() {
+        return movieCount;
+    }
+
+    public int getNeighbors() {
+        return neighbors;
+    }
+
+    // The movie's kept neighbors, strongest first
+    public int[] getNeighborMovies(int movie) {
+        return Arrays.copyOfRange(neighborMovies, neighborOffsets[movie], neighborOffsets[movie + 1]);
+    }
+
+    // How many users liked both the movie and each of its neighbors, in getNeighborMovies order
+    public int[] getNeighborWeights(int movie) {
+        return Arrays.copyOfRange(neighborWeights, neighborOffsets[movie], neighborOffsets[movie + 1]);
+    }
+
+    // Scores each neighbor of the liked movies by the sum of its co-like counts with them and
+    // returns the k best positions, best first, ties ordered like TopKHeap. likedMovies must be
+    // sorted; liked movies are never recommended.
+    @Override
+    public int[] recommend(int[] likedMovies, int k, IntFunction<String> titles) {
+        int pairCount = 0;
+        for (int movie : likedMovies) {
+            pairCount += neighborOffsets[movie + 1] - neighborOffsets[movie];
+        }
+
+        // Position in the high half and weight in the low half: after sorting, each candidate's
+        // weights are adjacent and can be summed in one pass
+        long[] pairs = new long[pairCount];
+        int p = 0;
+        for (int movie : likedMovies) {
+            for (int n = neighborOffsets[movie]; n < neighborOffsets[movie + 1]; n++) {
+                pairs[p++] = ((long) neighborMovies[n] << 32) | neighborWeights[n];
+            }
+        }
+        Arrays.sort(pairs);
+
+        TopKHeap heap = new TopKHeap(k, titles);
+        for (int start = 0; start < pairCount; ) {
+            int candidate = (int) (pairs[start] >>> 32);
+            int score = 0;
+            int end = start;
+            while (end < pairCount && (int) (pairs[end] >>> 32) == candidate) {
+                score += (int) pairs[end++];
+            }
+            if (Arrays.binarySearch(likedMovies, candidate) < 0) {
+                heap.offer(candidate, score);
+            }
+            start = end;
+        }
+        return heap.drainBestFirst();
+    }
+}
@@ -25,6 +25,14 @@ public class FileManager {
         return lines;
     }
 
+    public RecordReader openRecords(String filePath) throws IOException {
+        return new RecordReader(new FileReader(filePath));
+    }
+
+    public BufferedWriter openWriter(String filePath) throws IOException {
+        return new BufferedWriter(new FileWriter(filePath));
+    }
+
     public void writeFile(String filePath, List<String> content) {
         try (FileWriter fileWriter = new FileWriter(filePath);
              BufferedWriter bufferedWriter = new BufferedWriter(fileWriter)) {
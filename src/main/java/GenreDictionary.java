@@ -0,0 +1,78 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Maps each distinct genre name to a small dense ID in order of first appearance, and hands
+// out one shared String per name so loaded movies don't each keep their own copy
+public class GenreDictionary {
+    private final Map<String, Integer> ids;
+    private final List<String> names;
+
+    public GenreDictionary() {
+        ids = new HashMap<>();
+        names = new ArrayList<>();
+    }
+
+    // Builds a dictionary over the movies and assigns each movie its genre IDs
+    public static GenreDictionary index(List<Movie> movies) {
+        GenreDictionary dictionary = new GenreDictionary();
+        for (Movie movie : movies) {
+            movie.setGenreIds(dictionary.encode(movie.getMovieGenres()));
+        }
+        return dictionary;
+    }
+
+    public int add(String genre) {
+        Integer id = ids.get(genre);
+        if (id == null) {
+            id = names.size();
+            ids.put(genre, id);
+            names.add(genre);
+        }
+        return id;
+    }
+
+    public String canonical(String genre) {
+        return names.get(add(genre));
+    }
+
+    public int getId(String genre) {
+        Integer id = ids.get(genre);
+        return id == null ? -1 : id;
+    }
+
+    public String getName(int id) {
+        return names.get(id);
+    }
+
+    // One ID per entry, in list order, adding genres that are not known yet
+    public int[] encode(List<String> genres) {
+        int[] encoded = new int[genres.size()];
+        for (int g = 0; g < encoded.length; g++) {
+            encoded[g] = add(genres.get(g));
+        }
+        return encoded;
+    }
+
+    // Reorders distinct genre IDs, given in the order they were first seen, into the order a
+    // HashSet<String> of their names iterates them, so walking liked genres by ID adds titles to
+    // the output set in the same sequence the String-based walk did. A real HashSet is asked
+    // rather than replaying its table layout, which is not specified and may change between JDKs.
+    public void sortInHashSetOrder(int[] genreIds, int count) {
+        Set<String> ordered = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            ordered.add(names.get(genreIds[i]));
+        }
+        int i = 0;
+        for (String genre : ordered) {
+            genreIds[i++] = ids.get(genre);
+        }
+    }
+
+    public int size() {
+        return names.size();
+    }
+}
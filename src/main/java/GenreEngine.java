@@ -0,0 +1,120 @@
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// The default engine: every movie sharing a genre with one of the user's liked movies, minus
+// the liked movies themselves. Positions come back in the order a HashSet of the recommended
+// titles iterates them, one position per distinct title: a HashMap keyed by title keeps
+// exactly that order.
+public class GenreEngine implements RecommendationEngine {
+    private final RecommendationCache recommendationCache;
+    private CatalogIndex index;
+
+    public GenreEngine() {
+        this(null);
+    }
+
+    // With a cache, users who like the same genres share one posting-list walk
+    public GenreEngine(RecommendationCache recommendationCache) {
+        this.recommendationCache = recommendationCache;
+    }
+
+    @Override
+    public void prepare(CatalogIndex index, List<User> users) {
+        this.index = index;
+    }
+
+    @Override
+    public int[] recommend(User user) {
+        GenreDictionary genreDictionary = index.getGenreDictionary();
+        BitSet seenGenres = new BitSet(genreDictionary.size());
+        int[] likedGenres = new int[8];
+        int likedGenreCount = 0;
+        List<String> likedMoviesIds = user.getLikedMoviesIds();
+        int[] likedMovies = new int[likedMoviesIds.size()];
+        int likedMovieCount = 0;
+        for (String likedMovieId : likedMoviesIds) {
+            int likedIndex = index.getMovieIndex(likedMovieId);
+            if (likedIndex < 0) continue;
+
+            likedMovies[likedMovieCount++] = likedIndex;
+            // A liked ID stands for every movie with that ID, so their genres are all liked
+            for (int same = likedIndex; same >= 0; same = index.getNextWithSameId(same)) {
+                for (int genre : index.getGenreIds(same)) {
+                    if (seenGenres.get(genre)) continue;
+                    seenGenres.set(genre);
+                    if (likedGenreCount == likedGenres.length) {
+                        likedGenres = Arrays.copyOf(likedGenres, likedGenreCount * 2);
+                    }
+                    likedGenres[likedGenreCount++] = genre;
+                }
+            }
+        }
+        genreDictionary.sortInHashSetOrder(likedGenres, likedGenreCount);
+
+        // Liked movies are excluded by ID, so any catalog entry sharing a liked ID is excluded too;
+        // comparing first-with-same-ID positions does that without touching the ID strings
+        Arrays.sort(likedMovies, 0, likedMovieCount);
+        Map<String, Integer> recommendedMovies = new HashMap<>();
+        if (recommendationCache != null) {
+            // Keyed by the sorted genre set, so users who like the same genres share an entry
+            // whatever order they liked them in. The entry is walked in the HashSet order of the
+            // set filled in ID order, which only differs from this user's order when genre names
+            // share a hash bucket and arrived in another order; such a user walks uncached.
+            int[] signature = Arrays.copyOf(likedGenres, likedGenreCount);
+            Arrays.sort(signature);
+            int[] walkOrder = signature.clone();
+            genreDictionary.sortInHashSetOrder(walkOrder, walkOrder.length);
+            if (Arrays.equals(walkOrder, 0, likedGenreCount, likedGenres, 0, likedGenreCount)) {
+                // Offering the cached candidates in walk order gives the same putIfAbsent
+                // sequence the full walk would, so the map, and the rendered line, come out
+                // identical
+                for (int candidate : recommendationCache.get(signature, genres -> genreCandidates(walkOrder))) {
+                    if (Arrays.binarySearch(likedMovies, 0, likedMovieCount, index.getFirstWithSameId(candidate)) < 0) {
+                        recommendedMovies.putIfAbsent(index.getTitle(candidate), candidate);
+                    }
+                }
+                return toIndexArray(recommendedMovies);
+            }
+        }
+
+        for (int g = 0; g < likedGenreCount; g++) {
+            for (int candidate : index.getGenrePosting(likedGenres[g])) {
+                if (Arrays.binarySearch(likedMovies, 0, likedMovieCount, index.getFirstWithSameId(candidate)) < 0) {
+                    recommendedMovies.putIfAbsent(index.getTitle(candidate), candidate);
+                }
+            }
+        }
+        return toIndexArray(recommendedMovies);
+    }
+
+    // Catalog positions in the posting lists of the genres, walked in the given order, each
+    // listed once at its first appearance
+    private int[] genreCandidates(int[] genres) {
+        BitSet seen = new BitSet(index.size());
+        int[] candidates = new int[16];
+        int count = 0;
+        for (int genre : genres) {
+            for (int candidate : index.getGenrePosting(genre)) {
+                if (seen.get(candidate)) continue;
+                seen.set(candidate);
+                if (count == candidates.length) {
+                    candidates = Arrays.copyOf(candidates, count * 2);
+                }
+                candidates[count++] = candidate;
+            }
+        }
+        return Arrays.copyOf(candidates, count);
+    }
+
+    private static int[] toIndexArray(Map<String, Integer> recommendedMovies) {
+        int[] array = new int[recommendedMovies.size()];
+        int i = 0;
+        for (int position : recommendedMovies.values()) {
+            array[i++] = position;
+        }
+        return array;
+    }
+}
@@ -0,0 +1,62 @@
+import java.util.BitSet;
+import java.util.List;
+
+// Reverse index from genre ID to the users (by position in the user list) who liked at least
+// one movie of that genre, so a catalog change can find the users it may affect without
+// looking at everyone
+public class GenreUserIndex {
+    private final int userCount;
+    private final int[][] genreUsers;
+
+    public GenreUserIndex(CatalogIndex index, List<User> users) {
+        this.userCount = users.size();
+        int genreCount = index.getGenreDictionary().size();
+        int[][] likedGenres = new int[userCount][];
+        int[] sizes = new int[genreCount];
+        for (int u = 0; u < userCount; u++) {
+            BitSet genres = new BitSet(genreCount);
+            for (int movie : index.likedPositions(users.get(u))) {
+                for (int same = movie; same >= 0; same = index.getNextWithSameId(same)) {
+                    for (int genre : index.getGenreIds(same)) {
+                        genres.set(genre);
+                    }
+                }
+            }
+            likedGenres[u] = genres.stream().toArray();
+            for (int genre : likedGenres[u]) {
+                sizes[genre]++;
+            }
+        }
+
+        genreUsers = new int[genreCount][];
+        for (int genre = 0; genre < genreCount; genre++) {
+            genreUsers[genre] = new int[sizes[genre]];
+            sizes[genre] = 0;
+        }
+        for (int u = 0; u < userCount; u++) {
+            for (int genre : likedGenres[u]) {
+                genreUsers[genre][sizes[genre]++] = u;
+            }
+        }
+    }
+
+    public int getUserCount() {
+        return userCount;
+    }
+
+    // Users who liked a movie of the genre, ascending; none for a genre added after the build
+    public int[] getUsers(int genre) {
+        return genre < genreUsers.length ? genreUsers[genre] : new int[0];
+    }
+
+    // Users who liked a movie of at least one of the genres, ascending
+    public int[] getUsers(int[] genreIds) {
+        BitSet affected = new BitSet(userCount);
+        for (int genre : genreIds) {
+            for (int user : getUsers(genre)) {
+                affected.set(user);
+            }
+        }
+        return affected.stream().toArray();
+    }
+}
@@ -0,0 +1,91 @@
+import java.util.Arrays;
+import java.util.List;
+
+// Every user's liked movies as CSR arrays (an offsets array plus one flat array of entries),
+// and its transpose, the users who liked each movie, built on first use. The models trained on
+// all users' likes share one matrix per run instead of each flattening the likes again. Users
+// are identified by their index in the training data and movies by catalog position; the
+// arrays handed out are shared and must not be modified.
+public class LikeMatrix {
+    private final int movieCount;
+    private final int[] userOffsets;
+    private final int[] userMovies;
+    private int[] likerOffsets;
+    private int[] likers;
+
+    // Each user's liked positions in the index, in user order
+    public static LikeMatrix of(CatalogIndex index, List<User> users) {
+        return new LikeMatrix(index.size(), index.likedPositions(users));
+    }
+
+    // likedMovies holds each user's liked positions, sorted and without repeats; movieCount is
+    // one past the largest position
+    public LikeMatrix(int[][] likedMovies) {
+        this(Arrays.stream(likedMovies).flatMapToInt(Arrays::stream).max().orElse(-1) + 1, likedMovies);
+    }
+
+    public LikeMatrix(int movieCount, int[][] likedMovies) {
+        this.movieCount = movieCount;
+        userOffsets = new int[likedMovies.length + 1];
+        for (int u = 0; u < likedMovies.length; u++) {
+            userOffsets[u + 1] = userOffsets[u] + likedMovies[u].length;
+        }
+        userMovies = new int[userOffsets[likedMovies.length]];
+        for (int u = 0; u < likedMovies.length; u++) {
+            System.arraycopy(likedMovies[u], 0, userMovies, userOffsets[u], likedMovies[u].length);
+        }
+    }
+
+    public int getUserCount() {
+        return userOffsets.length - 1;
+    }
+
+    public int getMovieCount() {
+        return movieCount;
+    }
+
+    public int getLikeCount() {
+        return userMovies.length;
+    }
+
+    // User u's liked movies are getUserMovies()[getUserOffsets()[u] .. getUserOffsets()[u + 1])
+    public int[] getUserOffsets() {
+        return userOffsets;
+    }
+
+    public int[] getUserMovies() {
+        return userMovies;
+    }
+
+    // Movie m's likers, ascending, are getLikers()[getLikerOffsets()[m] .. getLikerOffsets()[m + 1])
+    public int[] getLikerOffsets() {
+        transpose();
+        return likerOffsets;
+    }
+
+    public int[] getLikers() {
+        transpose();
+        return likers;
+    }
+
+    private synchronized void transpose() {
+        if (likers != null) return;
+
+        int[] offsets = new int[movieCount + 1];
+        for (int movie : userMovies) {
+            offsets[movie + 1]++;
+        }
+        for (int m = 0; m < movieCount; m++) {
+            offsets[m + 1] += offsets[m];
+        }
+        int[] transposed = new int[userMovies.length];
+        int[] fill = Arrays.copyOf(offsets, movieCount);
+        for (int u = 0; u < getUserCount(); u++) {
+            for (int i = userOffsets[u]; i < userOffsets[u + 1]; i++) {
+                transposed[fill[userMovies[i]]++] = u;
+            }
+        }
+        likerOffsets = offsets;
+        likers = transposed;
+    }
+}
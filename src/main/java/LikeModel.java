@@ -0,0 +1,9 @@
+import java.util.function.IntFunction;
+
+// A model trained on every user's liked movies that ranks movies for one liked set
+public interface LikeModel {
+
+    // The k best catalog positions for the sorted liked positions, best first, never one of
+    // the liked movies; ties are ordered like TopKHeap
+    int[] recommend(int[] likedMovies, int k, IntFunction<String> titles);
+}
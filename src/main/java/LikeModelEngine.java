@@ -0,0 +1,33 @@
+import java.util.List;
+import java.util.function.Function;
+
+// Adapts a LikeModel to an engine: each run builds one LikeMatrix of all users' liked positions
+// and trains a fresh model on it, since the model depends on everyone's likes, then keeps each
+// user's topK best movies with one movie per title
+public class LikeModelEngine implements RecommendationEngine {
+    private final Function<LikeMatrix, LikeModel> trainer;
+    private final int topK;
+    private CatalogIndex index;
+    private LikeModel model;
+
+    // trainer receives the likes of every user, in user order
+    public LikeModelEngine(Function<LikeMatrix, LikeModel> trainer, int topK) {
+        this.trainer = trainer;
+        this.topK = topK;
+    }
+
+    public LikeModel getModel() {
+        return model;
+    }
+
+    @Override
+    public void prepare(CatalogIndex index, List<User> users) {
+        this.index = index;
+        this.model = trainer.apply(LikeMatrix.of(index, users));
+    }
+
+    @Override
+    public int[] recommend(User user) {
+        return index.distinctTitles(model.recommend(index.likedPositions(user), topK, index::getTitle));
+    }
+}
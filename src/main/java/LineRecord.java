@@ -0,0 +1,24 @@
+public class LineRecord {
+    private final String headerLine;
+    private final String detailLine;
+    private final int lineNumber;
+
+    public LineRecord(String headerLine, String detailLine, int lineNumber) {
+        this.headerLine = headerLine;
+        this.detailLine = detailLine;
+        this.lineNumber = lineNumber;
+    }
+
+    public String getHeaderLine() {
+        return headerLine;
+    }
+
+    public String getDetailLine() {
+        return detailLine;
+    }
+
+    // 1-based line number of the header line; the detail line follows it
+    public int getLineNumber() {
+        return lineNumber;
+    }
+}
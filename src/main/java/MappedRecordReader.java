@@ -0,0 +1,354 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+public class MappedRecordReader implements AutoCloseable {
+    public static final int DEFAULT_WINDOW_SIZE = 1 << 28;
+
+    private final FileChannel channel;
+    private final boolean ownsChannel;
+    private final long end;
+    private final int windowSize;
+
+    private MappedByteBuffer buffer;
+    private long windowStart;
+    private int position;
+    private int lineNumber;
+
+    private int headerStart;
+    private int headerEnd;
+    private int detailStart;
+    private int detailEnd;
+    private int recordLineNumber;
+    private final int[] recordBounds = new int[4];
+    private int[] fieldBounds = new int[8];
+
+    public static MappedRecordReader open(String filePath) throws IOException {
+        FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ);
+        return new MappedRecordReader(channel, true, 0, channel.size(), 1, DEFAULT_WINDOW_SIZE);
+    }
+
+    // Reads the records in [start, end) of a channel the caller keeps open; start must sit on a
+    // record boundary and firstLineNumber is the 1-based file line found there
+    public MappedRecordReader(FileChannel channel, long start, long end, int firstLineNumber, int windowSize) {
+        this(channel, false, start, end, firstLineNumber, windowSize);
+    }
+
+    private MappedRecordReader(FileChannel channel, boolean ownsChannel, long start, long end, int firstLineNumber, int windowSize) {
+        this.channel = channel;
+        this.ownsChannel = ownsChannel;
+        this.end = end;
+        this.windowSize = windowSize;
+        this.windowStart = start;
+        this.lineNumber = firstLineNumber - 1;
+    }
+
+    // Moves to the next header/detail pair, remapping the window when a record crosses its end.
+    // A trailing header without its detail line is dropped, like RecordReader.
+    public boolean next() throws IOException {
+        if (buffer == null) {
+            map(windowStart);
+        }
+
+        while (true) {
+            int scanned = scanRecord(recordBounds);
+            if (scanned >= 0) {
+                headerStart = recordBounds[0];
+                headerEnd = recordBounds[1];
+                detailStart = recordBounds[2];
+                detailEnd = recordBounds[3];
+                position = scanned;
+                lineNumber += 2;
+                recordLineNumber = lineNumber - 1;
+                return true;
+            }
+            if (windowStart + buffer.limit() >= end || scanned == -1) {
+                return false;
+            }
+            if (position == 0) {
+                throw new IOException("Record at line " + (lineNumber + 1) + " is larger than the mapping window");
+            }
+            map(windowStart + position);
+        }
+    }
+
+    // Returns the position after the record, -1 when the range holds no further complete
+    // record, or -2 when the record runs past the current window
+    private int scanRecord(int[] bounds) {
+        int limit = buffer.limit();
+        boolean lastWindow = windowStart + limit >= end;
+        int cursor = position;
+
+        for (int line = 0; line < 2; line++) {
+            if (cursor >= limit) {
+                return lastWindow ? -1 : -2;
+            }
+
+            int lineEnd = cursor;
+            while (lineEnd < limit) {
+                byte b = buffer.get(lineEnd);
+                if (b == '\n' || b == '\r') break;
+                lineEnd++;
+            }
+            if (lineEnd == limit && !lastWindow) {
+                return -2;
+            }
+
+            bounds[line * 2] = cursor;
+            bounds[line * 2 + 1] = lineEnd;
+
+            if (lineEnd < limit && buffer.get(lineEnd) == '\r') {
+                if (lineEnd + 1 == limit && !lastWindow) {
+                    return -2;
+                }
+                if (lineEnd + 1 < limit && buffer.get(lineEnd + 1) == '\n') {
+                    lineEnd++;
+                }
+            }
+            cursor = lineEnd < limit ? lineEnd + 1 : limit;
+        }
+        return cursor;
+    }
+
+    private void map(long start) throws IOException {
+        long size = Math.min(windowSize, end - start);
+        windowStart = start;
+        position = 0;
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+    }
+
+    // ========== Record Chunks ==========
+
+    public static class Chunk {
+        private final long start;
+        private final long end;
+        private final int firstLineNumber;
+
+        Chunk(long start, long end, int firstLineNumber) {
+            this.start = start;
+            this.end = end;
+            this.firstLineNumber = firstLineNumber;
+        }
+
+        public long getStart() {
+            return start;
+        }
+
+        public long getEnd() {
+            return end;
+        }
+
+        public int getFirstLineNumber() {
+            return firstLineNumber;
+        }
+    }
+
+    // Splits the channel into byte ranges that each start on a record (even line) boundary.
+    // Ranges are first snapped to line starts, their lines are counted in parallel, and any
+    // range that would start on a detail line is moved forward by one line.
+    public static List<Chunk> chunks(FileChannel channel, int chunkCount, int windowSize) throws IOException {
+        long size = channel.size();
+
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        for (int k = 1; k < chunkCount; k++) {
+            long boundary = lineStartAtOrAfter(channel, size * k / chunkCount, size);
+            if (boundary > boundaries.get(boundaries.size() - 1) && boundary < size) {
+                boundaries.add(boundary);
+            }
+        }
+        boundaries.add(size);
+
+        int ranges = boundaries.size() - 1;
+        long[] lineCounts = new long[ranges];
+        IOException[] failure = new IOException[1];
+        IntStream.range(0, ranges).parallel().forEach(k -> {
+            try {
+                lineCounts[k] = countTerminators(channel, boundaries.get(k), boundaries.get(k + 1), windowSize);
+            } catch (IOException e) {
+                failure[0] = e;
+            }
+        });
+        if (failure[0] != null) throw failure[0];
+
+        // Every range but the last holds at least one full line, so stepping a boundary
+        // forward by one line never passes the next boundary
+        List<Chunk> chunks = new ArrayList<>(ranges);
+        long start = 0;
+        long firstLine = 0;
+        long boundaryLine = 0;
+        for (int k = 0; k < ranges; k++) {
+            boundaryLine += lineCounts[k];
+            long nextStart = boundaries.get(k + 1);
+            long nextFirstLine = boundaryLine;
+            if (k + 1 < ranges && boundaryLine % 2 == 1) {
+                nextStart = nextLineStart(channel, nextStart, size);
+                nextFirstLine++;
+            }
+            chunks.add(new Chunk(start, nextStart, (int) firstLine + 1));
+            start = nextStart;
+            firstLine = nextFirstLine;
+        }
+        return chunks;
+    }
+
+    private static long lineStartAtOrAfter(FileChannel channel, long position, long size) throws IOException {
+        if (position == 0 || position >= size) return Math.min(position, size);
+
+        MappedByteBuffer around = channel.map(FileChannel.MapMode.READ_ONLY, position - 1, Math.min(2, size - position + 1));
+        byte previous = around.get(0);
+        if (previous == '\n' || (previous == '\r' && (around.limit() < 2 || around.get(1) != '\n'))) {
+            return position;
+        }
+        return nextLineStart(channel, position, size);
+    }
+
+    private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        int step = 1 << 16;
+        while (position < size) {
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(step, size - position));
+            for (int i = 0; i < window.limit(); i++) {
+                byte b = window.get(i);
+                if (b == '\n') return position + i + 1;
+                if (b == '\r') {
+                    long next = position + i + 1;
+                    if (next < size && nextByte(window, channel, i + 1, next) == '\n') return next + 1;
+                    return next;
+                }
+            }
+            position += window.limit();
+        }
+        return size;
+    }
+
+    private static byte nextByte(MappedByteBuffer window, FileChannel channel, int index, long position) throws IOException {
+        if (index < window.limit()) return window.get(index);
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, 1).get(0);
+    }
+
+    // Both ends sit on line starts, so a \r at the end of the range is never half of a \r\n
+    private static long countTerminators(FileChannel channel, long start, long end, int windowSize) throws IOException {
+        long count = 0;
+        boolean pendingCarriageReturn = false;
+        for (long position = start; position < end; ) {
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(windowSize, end - position));
+            for (int i = 0; i < window.limit(); i++) {
+                byte b = window.get(i);
+                if (b == '\n') {
+                    count++;
+                    pendingCarriageReturn = false;
+                } else {
+                    if (pendingCarriageReturn) count++;
+                    pendingCarriageReturn = b == '\r';
+                }
+            }
+            position += window.limit();
+        }
+        return pendingCarriageReturn ? count + 1 : count;
+    }
+
+    public int getLineNumber() {
+        return recordLineNumber;
+    }
+
+    public int getHeaderStart() {
+        return headerStart;
+    }
+
+    public int getHeaderEnd() {
+        return headerEnd;
+    }
+
+    public int getDetailStart() {
+        return detailStart;
+    }
+
+    public int getDetailEnd() {
+        return detailEnd;
+    }
+
+    // ========== Byte Range Helpers ==========
+    // Ranges are offsets into the current window. Every byte they test is ASCII, so they agree
+    // with the String methods the text loaders use on UTF-8 input.
+
+    public int trimStart(int start, int end) {
+        while (start < end && (buffer.get(start) & 0xFF) <= ' ') start++;
+        return start;
+    }
+
+    public int trimEnd(int start, int end) {
+        while (end > start && (buffer.get(end - 1) & 0xFF) <= ' ') end--;
+        return end;
+    }
+
+    public boolean isBlank(int start, int end) {
+        return trimStart(start, end) == end;
+    }
+
+    public boolean contains(int start, int end, byte value) {
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) == value) return true;
+        }
+        return false;
+    }
+
+    // Same as trim().split("\\s+").length > 1
+    public boolean hasInnerWhitespace(int start, int end) {
+        start = trimStart(start, end);
+        end = trimEnd(start, end);
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b == ' ' || b == '\t' || b == '\n' || b == 0x0B || b == '\f' || b == '\r') return true;
+        }
+        return false;
+    }
+
+    // Same field boundaries as String.split(","): trailing empty fields are dropped. Returns
+    // {count, start0, end0, start1, end1, ...} in an array reused by the next call.
+    public int[] split(int start, int end) {
+        int count = 0;
+        int fieldStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || buffer.get(i) == ',') {
+                if (2 * count + 2 >= fieldBounds.length) {
+                    fieldBounds = Arrays.copyOf(fieldBounds, fieldBounds.length * 2);
+                }
+                fieldBounds[2 * count + 1] = fieldStart;
+                fieldBounds[2 * count + 2] = i;
+                count++;
+                fieldStart = i + 1;
+            }
+        }
+        if (count > 1) {
+            while (count > 0 && fieldBounds[2 * count - 1] == fieldBounds[2 * count]) count--;
+        }
+        fieldBounds[0] = count;
+        return fieldBounds;
+    }
+
+    public String decode(int start, int end) {
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public String decodeTrimmed(int start, int end) {
+        int trimmedStart = trimStart(start, end);
+        return decode(trimmedStart, trimEnd(trimmedStart, end));
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer = null;
+        if (ownsChannel) {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,230 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+// "Users with similar taste liked...": each user's liked set gets a MinHash signature, cut into
+// bands; users whose band hashes collide in at least one band become candidate neighbors, so
+// finding them costs a lookup per band instead of a comparison with every user. Candidates are
+// then ranked by exact Jaccard similarity of their liked sets, and the movies liked by the most
+// of the nearest neighbors are recommended. Movies are identified by catalog position.
+public class MinHashRecommender implements LikeModel {
+    public static final int DEFAULT_BANDS = 20;
+    public static final int DEFAULT_ROWS = 2;
+    public static final int DEFAULT_NEIGHBORS = 20;
+    // Caps the candidates taken from one bucket, so a crowd of users with the same popular
+    // likes can't make a lookup quadratic
+    private static final int MAX_BUCKET_SCAN = 100;
+
+    private final int bands;
+    private final int rows;
+    private final int neighbors;
+    private final long[] hashMultipliers;
+    private final long[] hashOffsets;
+
+    private final LikeMatrix likes;
+    private final int[] userOffsets;
+    private final int[] userMovies;
+    // Per band, the band hashes of every user with likes in ascending order, and the users
+    // they belong to
+    private final int[][] bandKeys;
+    private final int[][] bandUsers;
+
+    public MinHashRecommender(int[][] likedMovies) {
+        this(new LikeMatrix(likedMovies));
+    }
+
+    public MinHashRecommender(LikeMatrix likes) {
+        this(likes, DEFAULT_BANDS, DEFAULT_ROWS, DEFAULT_NEIGHBORS);
+    }
+
+    // likedMovies holds each user's liked positions, sorted and without repeats
+    public MinHashRecommender(int[][] likedMovies, int bands, int rows, int neighbors) {
+        this(new LikeMatrix(likedMovies), bands, rows, neighbors);
+    }
+
+    public MinHashRecommender(LikeMatrix likes, int bands, int rows, int neighbors) {
+        if (bands < 1 || rows < 1 || neighbors < 1) {
+            throw new IllegalArgumentException("Bands, rows and neighbors must be at least 1");
+        }
+        this.bands = bands;
+        this.rows = rows;
+        this.neighbors = neighbors;
+
+        // A fixed seed keeps the hash family, and so the recommendations, the same on every run
+        SplittableRandom random = new SplittableRandom(0x5EED);
+        hashMultipliers = new long[bands * rows];
+        hashOffsets = new long[bands * rows];
+        for (int h = 0; h < hashMultipliers.length; h++) {
+            hashMultipliers[h] = random.nextLong() | 1;
+            hashOffsets[h] = random.nextLong();
+        }
+
+        this.likes = likes;
+        userOffsets = likes.getUserOffsets();
+        userMovies = likes.getUserMovies();
+
+        int[] indexed = IntStream.range(0, likes.getUserCount()).filter(u -> userOffsets[u + 1] > userOffsets[u]).toArray();
+        int[][] keysByUser = new int[indexed.length][];
+        IntStream.range(0, indexed.length).parallel().forEach(i -> keysByUser[i] = bandKeys(userMovies, userOffsets[indexed[i]], userOffsets[indexed[i] + 1]));
+
+        bandKeys = new int[bands][];
+        bandUsers = new int[bands][];
+        IntStream.range(0, bands).parallel().forEach(band -> {
+            // Key in the high half, user in the low half: one sort groups each bucket and
+            // orders its users by position
+            long[] entries = new long[indexed.length];
+            for (int i = 0; i < indexed.length; i++) {
+                entries[i] = ((long) keysByUser[i][band] << 32) | indexed[i];
+            }
+            Arrays.sort(entries);
+            int[] keys = new int[entries.length];
+            int[] users = new int[entries.length];
+            for (int i = 0; i < entries.length; i++) {
+                keys[i] = (int) (entries[i] >> 32);
+                users[i] = (int) entries[i];
+            }
+            bandKeys[band] = keys;
+            bandUsers[band] = users;
+        });
+    }
+
+    public int getUserCount() {
+        return likes.getUserCount();
+    }
+
+    // One hash per band over that band's rows of the MinHash signature of movies[start, end)
+    private int[] bandKeys(int[] movies, int start, int end) {
+        int[] keys = new int[bands];
+        for (int band = 0; band < bands; band++) {
+            long key = band;
+            for (int row = 0; row < rows; row++) {
+                int h = band * rows + row;
+                long min = Long.MAX_VALUE;
+                for (int i = start; i < end; i++) {
+                    min = Math.min(min, mix(movies[i] * hashMultipliers[h] + hashOffsets[h]));
+                }
+                key = mix(key * 31 + min);
+            }
+            keys[band] = (int) key;
+        }
+        return keys;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+
+    // Users sharing a band bucket with the liked set and liking at least one of the same movies,
+    // nearest first by Jaccard similarity, then by position. Users liking exactly the same set
+    // are left out since they have nothing new to offer.
+    public int[] findNeighbors(int[] likedMovies) {
+        if (likedMovies.length == 0) return new int[0];
+
+        int[] keys = bandKeys(likedMovies, 0, likedMovies.length);
+        int[] candidates = new int[16];
+        int candidateCount = 0;
+        for (int band = 0; band < bands; band++) {
+            int[] sortedKeys = bandKeys[band];
+            int slot = firstSlot(sortedKeys, keys[band]);
+            for (int end = Math.min(sortedKeys.length, slot + MAX_BUCKET_SCAN); slot < end && sortedKeys[slot] == keys[band]; slot++) {
+                if (candidateCount == candidates.length) {
+                    candidates = Arrays.copyOf(candidates, candidateCount * 2);
+                }
+                candidates[candidateCount++] = bandUsers[band][slot];
+            }
+        }
+        Arrays.sort(candidates, 0, candidateCount);
+
+        // Similarity scaled to 30 bits in the high half, inverted user in the low half, so the
+        // largest entries are the nearest neighbors with ties going to the smaller position
+        long[] ranked = new long[candidateCount];
+        int rankedCount = 0;
+        for (int c = 0; c < candidateCount; c++) {
+            int user = candidates[c];
+            if (c > 0 && candidates[c - 1] == user) continue;
+
+            int userLength = userOffsets[user + 1] - userOffsets[user];
+            int shared = sharedMovies(likedMovies, user);
+            if (shared == 0 || (shared == likedMovies.length && shared == userLength)) continue;
+            double jaccard = shared / (double) (likedMovies.length + userLength - shared);
+            ranked[rankedCount++] = ((long) (jaccard * (1 << 30)) << 32) | (Integer.MAX_VALUE - user);
+        }
+        Arrays.sort(ranked, 0, rankedCount);
+
+        int kept = Math.min(neighbors, rankedCount);
+        int[] nearest = new int[kept];
+        for (int k = 0; k < kept; k++) {
+            nearest[k] = Integer.MAX_VALUE - (int) ranked[rankedCount - 1 - k];
+        }
+        return nearest;
+    }
+
+    private static int firstSlot(int[] sortedKeys, int key) {
+        int low = 0;
+        int high = sortedKeys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedKeys[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int sharedMovies(int[] likedMovies, int user) {
+        int shared = 0;
+        int i = 0;
+        int j = userOffsets[user];
+        int end = userOffsets[user + 1];
+        while (i < likedMovies.length && j < end) {
+            if (likedMovies[i] < userMovies[j]) {
+                i++;
+            } else if (likedMovies[i] > userMovies[j]) {
+                j++;
+            } else {
+                shared++;
+                i++;
+                j++;
+            }
+        }
+        return shared;
+    }
+
+    // Scores each movie liked by the nearest neighbors by how many of them liked it and returns
+    // the k best positions, best first, ties ordered like TopKHeap. likedMovies must be sorted;
+    // liked movies are never recommended.
+    @Override
+    public int[] recommend(int[] likedMovies, int k, IntFunction<String> titles) {
+        int[] nearest = findNeighbors(likedMovies);
+        int voteCount = 0;
+        for (int user : nearest) {
+            voteCount += userOffsets[user + 1] - userOffsets[user];
+        }
+        int[] votes = new int[voteCount];
+        int v = 0;
+        for (int user : nearest) {
+            for (int i = userOffsets[user]; i < userOffsets[user + 1]; i++) {
+                votes[v++] = userMovies[i];
+            }
+        }
+        Arrays.sort(votes);
+
+        TopKHeap heap = new TopKHeap(k, titles);
+        for (int start = 0; start < voteCount; ) {
+            int end = start;
+            while (end < voteCount && votes[end] == votes[start]) {
+                end++;
+            }
+            if (Arrays.binarySearch(likedMovies, votes[start]) < 0) {
+                heap.offer(votes[start], end - start);
+            }
+            start = end;
+        }
+        return heap.drainBestFirst();
+    }
+}
@@ -4,7 +4,8 @@ public class Movie {
     private String movieTitle;
     private String movieId;
     private List<String> movieGenres;
-    
+    private int[] genreIds;
+
     public Movie(String title, String id, List<String> genres) {
         this.movieTitle = title;
         this.movieId = id;
@@ -23,6 +24,11 @@ public class Movie {
         return movieGenres;
     }
 
+    // GenreDictionary IDs of getMovieGenres(), entry for entry; null until the movie is indexed
+    public int[] getGenreIds() {
+        return genreIds;
+    }
+
     public void setMovieTitle(String title) {
         this.movieTitle = title;
     }
@@ -33,5 +39,10 @@ public class Movie {
 
     public void setMovieGenres(List<String> genres) {
         this.movieGenres = genres;
+        this.genreIds = null;
+    }
+
+    public void setGenreIds(int[] genreIds) {
+        this.genreIds = genreIds;
     }
 }
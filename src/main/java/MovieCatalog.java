@@ -0,0 +1,149 @@
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+// Read-only movie catalog stored column by column outside the Java heap: UTF-8 titles and IDs
+// with their offsets, and each movie's genre IDs. Movie objects are only built when asList()
+// elements are read, so a large catalog adds almost nothing for the garbage collector to trace.
+// Close it to free the memory.
+public class MovieCatalog implements AutoCloseable {
+    private final Arena arena;
+    private final GenreDictionary genreDictionary;
+    private final int size;
+
+    private final MemorySegment titleOffsets;
+    private final MemorySegment titleBytes;
+    private final MemorySegment idOffsets;
+    private final MemorySegment idBytes;
+    private final MemorySegment genreOffsets;
+    private final MemorySegment genreIds;
+
+    private MovieCatalog(List<Movie> movies, GenreDictionary genreDictionary) {
+        this.arena = Arena.ofShared();
+        this.genreDictionary = genreDictionary;
+        this.size = movies.size();
+
+        int[][] encodedGenres = new int[size][];
+        long titleLength = 0;
+        long idLength = 0;
+        long genreCount = 0;
+        for (int i = 0; i < size; i++) {
+            Movie movie = movies.get(i);
+            titleLength += utf8(movie.getMovieTitle()).length;
+            idLength += utf8(movie.getMovieId()).length;
+            encodedGenres[i] = genreDictionary.encode(movie.getMovieGenres());
+            genreCount += encodedGenres[i].length;
+        }
+
+        titleOffsets = allocate(ValueLayout.JAVA_LONG, size + 1L);
+        titleBytes = allocate(ValueLayout.JAVA_BYTE, titleLength);
+        idOffsets = allocate(ValueLayout.JAVA_LONG, size + 1L);
+        idBytes = allocate(ValueLayout.JAVA_BYTE, idLength);
+        genreOffsets = allocate(ValueLayout.JAVA_LONG, size + 1L);
+        genreIds = allocate(ValueLayout.JAVA_INT, genreCount);
+
+        long titleOffset = 0;
+        long idOffset = 0;
+        long genreOffset = 0;
+        for (int i = 0; i < size; i++) {
+            Movie movie = movies.get(i);
+            titleOffset = append(titleOffsets, titleBytes, i, titleOffset, utf8(movie.getMovieTitle()));
+            idOffset = append(idOffsets, idBytes, i, idOffset, utf8(movie.getMovieId()));
+
+            int[] ids = encodedGenres[i];
+            genreOffsets.setAtIndex(ValueLayout.JAVA_LONG, i, genreOffset);
+            MemorySegment.copy(ids, 0, genreIds, ValueLayout.JAVA_INT, genreOffset * Integer.BYTES, ids.length);
+            genreOffset += ids.length;
+        }
+        titleOffsets.setAtIndex(ValueLayout.JAVA_LONG, size, titleOffset);
+        idOffsets.setAtIndex(ValueLayout.JAVA_LONG, size, idOffset);
+        genreOffsets.setAtIndex(ValueLayout.JAVA_LONG, size, genreOffset);
+    }
+
+    // Copies the movies into a new catalog; their genres are encoded with genreDictionary
+    public static MovieCatalog of(List<Movie> movies, GenreDictionary genreDictionary) {
+        return new MovieCatalog(movies, genreDictionary);
+    }
+
+    private MemorySegment allocate(ValueLayout layout, long count) {
+        // Zero-length segments are avoided so an empty column is still a valid segment
+        return arena.allocate(Math.max(1, count) * layout.byteSize(), layout.byteAlignment());
+    }
+
+    private static long append(MemorySegment offsets, MemorySegment bytes, int index, long offset, byte[] value) {
+        offsets.setAtIndex(ValueLayout.JAVA_LONG, index, offset);
+        MemorySegment.copy(value, 0, bytes, ValueLayout.JAVA_BYTE, offset, value.length);
+        return offset + value.length;
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String decode(MemorySegment offsets, MemorySegment bytes, int index) {
+        long start = offsets.getAtIndex(ValueLayout.JAVA_LONG, index);
+        int length = (int) (offsets.getAtIndex(ValueLayout.JAVA_LONG, index + 1) - start);
+        byte[] value = new byte[length];
+        MemorySegment.copy(bytes, ValueLayout.JAVA_BYTE, start, value, 0, length);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public GenreDictionary getGenreDictionary() {
+        return genreDictionary;
+    }
+
+    public String getTitle(int index) {
+        return decode(titleOffsets, titleBytes, index);
+    }
+
+    public String getId(int index) {
+        return decode(idOffsets, idBytes, index);
+    }
+
+    public int[] getGenreIds(int index) {
+        long start = genreOffsets.getAtIndex(ValueLayout.JAVA_LONG, index);
+        int count = (int) (genreOffsets.getAtIndex(ValueLayout.JAVA_LONG, index + 1) - start);
+        int[] ids = new int[count];
+        MemorySegment.copy(genreIds, ValueLayout.JAVA_INT, start * Integer.BYTES, ids, 0, count);
+        return ids;
+    }
+
+    public Movie getMovie(int index) {
+        int[] ids = getGenreIds(index);
+        List<String> genres = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            genres.add(genreDictionary.getName(id));
+        }
+        Movie movie = new Movie(getTitle(index), getId(index), genres);
+        movie.setGenreIds(ids);
+        return movie;
+    }
+
+    // Each get builds a fresh Movie from the columns; changes to it don't reach the catalog
+    public List<Movie> asList() {
+        return new AbstractList<Movie>() {
+            @Override
+            public Movie get(int index) {
+                return getMovie(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        arena.close();
+    }
+}
@@ -0,0 +1,167 @@
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+
+// Movie IDs accepted so far plus an index of their numeric suffixes, so checking a new ID
+// against the whole catalog costs one hash lookup and one suffix lookup. Suffixes of up to
+// BITSET_MAX_DIGITS digits are tracked in a bitset; wider ones in an open-addressing hash set
+// sized from the expected number of IDs, since a bitset over 10^digits values would not fit.
+public class MovieIdRegistry {
+    public static final int DEFAULT_SUFFIX_DIGITS = 3;
+    public static final int MAX_SUFFIX_DIGITS = 18;
+    private static final int BITSET_MAX_DIGITS = 7;
+
+    private final int suffixDigits;
+    private final Set<String> movieIds;
+    private final BitSet suffixBits;
+    private final SuffixSet suffixSet;
+
+    public MovieIdRegistry() {
+        this(DEFAULT_SUFFIX_DIGITS, 0);
+    }
+
+    public MovieIdRegistry(int suffixDigits, int expectedSize) {
+        if (suffixDigits < 1 || suffixDigits > MAX_SUFFIX_DIGITS) {
+            throw new IllegalArgumentException("Movie ID suffix digits must be between 1 and " + MAX_SUFFIX_DIGITS);
+        }
+        this.suffixDigits = suffixDigits;
+        this.movieIds = new HashSet<>(Math.max(16, (int) (expectedSize / 0.75f) + 1));
+        if (suffixDigits <= BITSET_MAX_DIGITS) {
+            this.suffixBits = new BitSet((int) Math.pow(10, suffixDigits));
+            this.suffixSet = null;
+        } else {
+            this.suffixBits = null;
+            this.suffixSet = new SuffixSet(expectedSize);
+        }
+    }
+
+    public int getSuffixDigits() {
+        return suffixDigits;
+    }
+
+    // Expects an ID that already passed Validators.validMovieIdUniqueNumbers with these digits
+    public boolean isAvailable(String movieId) {
+        if (movieIds.contains(movieId)) return false;
+        long suffix = suffix(movieId);
+        return suffixBits != null ? !suffixBits.get((int) suffix) : !suffixSet.contains(suffix);
+    }
+
+    public void add(String movieId) {
+        movieIds.add(movieId);
+        long suffix = suffix(movieId);
+        if (suffixBits != null) {
+            suffixBits.set((int) suffix);
+        } else {
+            suffixSet.add(suffix);
+        }
+    }
+
+    // Frees the ID and its suffix for reuse
+    public void remove(String movieId) {
+        if (!movieIds.remove(movieId)) return;
+        long suffix = suffix(movieId);
+        if (suffixBits != null) {
+            suffixBits.clear((int) suffix);
+        } else {
+            suffixSet.remove(suffix);
+        }
+    }
+
+    public boolean contains(String movieId) {
+        return movieIds.contains(movieId);
+    }
+
+    public int size() {
+        return movieIds.size();
+    }
+
+    private long suffix(String movieId) {
+        long value = 0;
+        for (int i = movieId.length() - suffixDigits; i < movieId.length(); i++) {
+            value = value * 10 + (movieId.charAt(i) - '0');
+        }
+        return value;
+    }
+
+    // Linear-probing set of non-negative longs; -1 marks an empty slot
+    private static class SuffixSet {
+        private long[] slots;
+        private int size;
+
+        SuffixSet(int expectedSize) {
+            int capacity = 16;
+            while (capacity * 0.5 < expectedSize) {
+                capacity <<= 1;
+            }
+            slots = new long[capacity];
+            Arrays.fill(slots, -1);
+        }
+
+        boolean contains(long value) {
+            int mask = slots.length - 1;
+            for (int slot = hash(value) & mask; slots[slot] != -1; slot = (slot + 1) & mask) {
+                if (slots[slot] == value) return true;
+            }
+            return false;
+        }
+
+        void add(long value) {
+            if (size + 1 > slots.length / 2) {
+                grow();
+            }
+            if (insert(slots, value)) {
+                size++;
+            }
+        }
+
+        // Backward-shift deletion: later entries of the probe run move into the gap, so lookups
+        // never stop early at a hole
+        void remove(long value) {
+            int mask = slots.length - 1;
+            int slot = hash(value) & mask;
+            while (slots[slot] != value) {
+                if (slots[slot] == -1) return;
+                slot = (slot + 1) & mask;
+            }
+            size--;
+
+            int gap = slot;
+            for (int next = (gap + 1) & mask; slots[next] != -1; next = (next + 1) & mask) {
+                int home = hash(slots[next]) & mask;
+                // The entry may fill the gap unless its home lies cyclically in (gap, next]
+                boolean homeAfterGap = gap <= next ? (home > gap && home <= next) : (home > gap || home <= next);
+                if (!homeAfterGap) {
+                    slots[gap] = slots[next];
+                    gap = next;
+                }
+            }
+            slots[gap] = -1;
+        }
+
+        private void grow() {
+            long[] grown = new long[slots.length * 2];
+            Arrays.fill(grown, -1);
+            for (long value : slots) {
+                if (value != -1) insert(grown, value);
+            }
+            slots = grown;
+        }
+
+        private static boolean insert(long[] table, long value) {
+            int mask = table.length - 1;
+            int slot = hash(value) & mask;
+            while (table[slot] != -1) {
+                if (table[slot] == value) return false;
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = value;
+            return true;
+        }
+
+        private static int hash(long value) {
+            long mixed = value * 0x9E3779B97F4A7C15L;
+            return (int) (mixed ^ (mixed >>> 32));
+        }
+    }
+}
@@ -1,20 +1,68 @@
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 public class MovieRecommendationSystem {
+    private static final int STREAMING_BATCH_SIZE = 1024;
+    public static final int DEFAULT_TOP_K = 10;
+    public static final int DEFAULT_NEIGHBOR_COUNT = CoLikeRecommender.DEFAULT_NEIGHBORS;
+
     private List<Movie> movies;
     private List<User> users;
     private FileManager fileManager;
     private List<String> errors;
+    private GenreDictionary genreDictionary;
+    private CatalogIndex catalogIndex;
+    private MovieCatalog movieCatalog;
+    private RecommendationMode recommendationMode;
+    private RecommendationEngine recommendationEngine;
+    private BitsetEngine bitsetEngine;
+    private AlsRecommender alsRecommender;
+    // What the stored recommendations were computed from, so a catalog change knows whether it
+    // can update them in place
+    private List<User> recommendedUsers;
+    private CatalogIndex recommendedIndex;
+    private GenreUserIndex genreUserIndex;
+    private int alsIterations;
+    private String alsFactorsPath;
+    private int neighborCount;
+    private boolean parallel;
+    private int topK;
+    private RecommendationCache recommendationCache;
+    private MovieIdRegistry movieIdRegistry;
+    // The catalog whose every movie movieIdRegistry holds, or null when validation stopped early
+    // or has not run on the current catalog
+    private CatalogIndex registeredCatalog;
+    private int movieIdDigits;
+    private Set<String> validatedUserIds;
+    private String deferredValidationError;
 
     MovieRecommendationSystem(){
         movies = new ArrayList<>();
         users = new ArrayList<>();
         fileManager = new FileManager();
         errors = new ArrayList<>();
+        genreDictionary = new GenreDictionary();
+        catalogIndex = new CatalogIndex(movies, null, genreDictionary);
+        recommendationMode = RecommendationMode.GENRE;
+        topK = DEFAULT_TOP_K;
+        neighborCount = DEFAULT_NEIGHBOR_COUNT;
+        alsIterations = AlsRecommender.DEFAULT_ITERATIONS;
+        movieIdDigits = MovieIdRegistry.DEFAULT_SUFFIX_DIGITS;
+        movieIdRegistry = new MovieIdRegistry();
+        validatedUserIds = new HashSet<>();
     }
 
     public List<Movie> getMovies() {
@@ -29,15 +77,144 @@ public class MovieRecommendationSystem {
         return errors;
     }
 
+    public MovieIdRegistry getMovieIdRegistry() {
+        return movieIdRegistry;
+    }
+
+    public int getMovieIdDigits() {
+        return movieIdDigits;
+    }
+
+    // Wide-ID mode: movie IDs end in exactly this many digits instead of 3, which lifts the
+    // 1000-movie limit that unique 3-digit suffixes impose
+    public void setMovieIdDigits(int movieIdDigits) {
+        this.movieIdRegistry = new MovieIdRegistry(movieIdDigits, 0);
+        this.movieIdDigits = movieIdDigits;
+        this.registeredCatalog = null;
+    }
+
+    public GenreDictionary getGenreDictionary() {
+        return genreDictionary;
+    }
+
+    public Movie getMovie(String movieId) {
+        int index = catalogIndex.getMovieIndex(movieId);
+        return index < 0 ? null : movies.get(index);
+    }
+
+    // A fixed-size or unmodifiable list is copied so addMovie and removeMovie can change it
     public void setMovies(List<Movie> movies) {
-        this.movies = movies;
+        this.movies = movies instanceof ArrayList ? movies : new ArrayList<>(movies);
+        this.movieCatalog = null;
+        indexMovies();
+    }
+
+    // Uses an off-heap catalog as the movie list. Its genre dictionary replaces this system's,
+    // and the caller keeps ownership: it must stay open while the system uses it.
+    public void setMovieCatalog(MovieCatalog movieCatalog) {
+        this.genreDictionary = movieCatalog.getGenreDictionary();
+        this.movies = movieCatalog.asList();
+        this.movieCatalog = movieCatalog;
+        indexMovies();
+    }
+
+    public MovieCatalog getMovieCatalog() {
+        return movieCatalog;
     }
 
     public void setUsers(List<User> users) {
         this.users = users;
     }
 
+    public RecommendationMode getRecommendationMode() {
+        return recommendationMode;
+    }
+
+    public void setRecommendationMode(RecommendationMode recommendationMode) {
+        this.recommendationMode = recommendationMode;
+    }
+
+    public RecommendationEngine getRecommendationEngine() {
+        return recommendationEngine;
+    }
+
+    // A custom engine to use instead of the one the recommendation mode selects; null goes back
+    // to the mode's engine
+    public void setRecommendationEngine(RecommendationEngine recommendationEngine) {
+        this.recommendationEngine = recommendationEngine;
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    // Number of movies kept per user in RANKED mode
+    public void setTopK(int topK) {
+        if (topK < 0) {
+            throw new IllegalArgumentException("Top K must not be negative");
+        }
+        this.topK = topK;
+    }
+
+    public int getNeighborCount() {
+        return neighborCount;
+    }
+
+    // How many co-liked neighbors the COLLABORATIVE engine keeps per movie
+    public void setNeighborCount(int neighborCount) {
+        if (neighborCount < 1) {
+            throw new IllegalArgumentException("Neighbor count must be at least 1");
+        }
+        this.neighborCount = neighborCount;
+    }
+
+    public int getAlsIterations() {
+        return alsIterations;
+    }
+
+    public void setAlsIterations(int alsIterations) {
+        if (alsIterations < 0) {
+            throw new IllegalArgumentException("ALS iterations must not be negative");
+        }
+        this.alsIterations = alsIterations;
+    }
+
+    public String getAlsFactorsPath() {
+        return alsFactorsPath;
+    }
+
+    // File the ALS engine reuses factors from when they were trained on the same likes, and
+    // saves them to after training; null keeps them in memory only
+    public void setAlsFactorsPath(String alsFactorsPath) {
+        this.alsFactorsPath = alsFactorsPath;
+    }
+
+    public AlsRecommender getAlsRecommender() {
+        return alsRecommender;
+    }
+
+    public RecommendationCache getRecommendationCache() {
+        return recommendationCache;
+    }
+
+    // Memoizes the genre engine's candidate walk per liked-genre signature; see RecommendationCache
+    public void setRecommendationCacheEnabled(boolean enabled) {
+        recommendationCache = enabled ? new RecommendationCache() : null;
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
     public void loadMovies(String moviesTXT) {
+        loadMovies(moviesTXT, false);
+    }
+
+    private void loadMovies(String moviesTXT, boolean validate) {
         if (moviesTXT == null || moviesTXT.trim().isEmpty()) {
             errors.add("ERROR: Invalid movie file path");
             return;
@@ -49,60 +226,96 @@ public class MovieRecommendationSystem {
             return;
         }
         
-        List<String> movieLines = fileManager.readFile(moviesTXT);
-        this.movies.clear();
-        for (int i = 0; i < movieLines.size(); i += 2) {
-            if (i + 1 >= movieLines.size()) break;
-            
-            String titleLine = movieLines.get(i);
-            String genresLine = movieLines.get(i + 1);
-            
-            if (titleLine == null || titleLine.trim().isEmpty()){
-                errors.add("ERROR: Missing movie title & Id at line " + (i + 1));
-                continue;
-            } 
-            
-            String[] titleData = titleLine.split(",");
-            if (titleData.length != 2) {
-                errors.add("ERROR: Incorrect movie line format at line " + (i + 1));
-                continue;
-            }
-            
-            String title = titleData[0].trim();
-            String id = titleData[1].trim();
-            
-            if (title.isEmpty()) {
-                errors.add("ERROR: Empty movie title at line " + (i + 1));
-                continue;
-            }
-            if (id.isEmpty()) {
-                errors.add("ERROR: Empty movie ID at line " + (i + 1));
-                continue;
+        this.movies = new ArrayList<>();
+        this.movieCatalog = null;
+        try (RecordReader reader = fileManager.openRecords(moviesTXT)) {
+            LineRecord record;
+            while ((record = reader.next()) != null) {
+                Movie movie = parseMovie(record.getHeaderLine(), record.getDetailLine(), record.getLineNumber(), validate);
+                if (movie != null) {
+                    movies.add(movie);
+                }
             }
+        } catch (IOException e) {
+            System.out.println("Failed to read file " + moviesTXT);
+        }
+        indexMovies();
+    }
 
-            if (genresLine == null || genresLine.trim().isEmpty()) {
-                errors.add("ERROR: Empty movie genres at line " + (i + 2));
-                continue;
-            }
-            
-            String[] checkGenres = genresLine.trim().split("\\s+");
+    private Movie parseMovie(String titleLine, String genresLine, int line, boolean validate) {
+        if (titleLine == null || titleLine.trim().isEmpty()){
+            errors.add("ERROR: Missing movie title & Id at line " + line);
+            return null;
+        } 
+        
+        String[] titleData = titleLine.split(",");
+        if (titleData.length != 2) {
+            errors.add("ERROR: Incorrect movie line format at line " + line);
+            return null;
+        }
+        
+        String title = titleData[0].trim();
+        String id = titleData[1].trim();
+        
+        if (title.isEmpty()) {
+            errors.add("ERROR: Empty movie title at line " + line);
+            return null;
+        }
+        if (id.isEmpty()) {
+            errors.add("ERROR: Empty movie ID at line " + line);
+            return null;
+        }
 
+        if (genresLine == null || genresLine.trim().isEmpty()) {
+            errors.add("ERROR: Empty movie genres at line " + (line + 1));
+            return null;
+        }
+        
+        String[] checkGenres = genresLine.trim().split("\\s+");
 
-            if (checkGenres.length > 1 && !genresLine.contains(",")) {
-                errors.add("ERROR: Movie genres must be separated by a comma at line " + (i + 2));
-                continue;
-            }
 
-            List<String> genres = new ArrayList<>();
-            for (String genre : genresLine.split(",")) {
-                genres.add(genre.trim());
+        if (checkGenres.length > 1 && !genresLine.contains(",")) {
+            errors.add("ERROR: Movie genres must be separated by a comma at line " + (line + 1));
+            return null;
+        }
+
+        if (validate && !validateOnLoad(movieError(title, id), id, movieIdRegistry::add)) {
+            return null;
+        }
+
+        List<String> genres = new ArrayList<>();
+        for (String genre : genresLine.split(",")) {
+            genres.add(genreDictionary.canonical(genre.trim()));
+        }
+        
+        return new Movie(title, id, genres);
+    }
+
+    // Genre ID -> catalog positions posting lists and ID -> first catalog position lookup,
+    // rebuilt whenever the catalog is replaced. Genre IDs come from genreDictionary, which keeps
+    // growing across catalogs.
+    private void indexMovies() {
+        if (movieCatalog == null) {
+            for (Movie movie : movies) {
+                movie.setGenreIds(genreDictionary.encode(movie.getMovieGenres()));
             }
-            
-            movies.add(new Movie(title, id, genres));
         }
+        catalogIndex = new CatalogIndex(movies, movieCatalog, genreDictionary);
+        alsRecommender = null;
+        if (recommendationCache != null) {
+            recommendationCache.clear();
+        }
+    }
+
+    public CatalogIndex getCatalogIndex() {
+        return catalogIndex;
     }
-    
+
     public void loadUsers(String usersTXT) {
+        loadUsers(usersTXT, false);
+    }
+
+    private void loadUsers(String usersTXT, boolean validate) {
         if (usersTXT == null || usersTXT.trim().isEmpty()) {
             errors.add("ERROR: Invalid user file path");
             return;
@@ -114,141 +327,535 @@ public class MovieRecommendationSystem {
             return;
         }
         
-        List<String> userLines = fileManager.readFile(usersTXT);
         this.users.clear();
-        for (int i = 0; i < userLines.size(); i += 2) {
-            if (i + 1 >= userLines.size()) break;
-            
-            String nameLine = userLines.get(i);
-            String moviesLine = userLines.get(i + 1);
-            
-            if (nameLine == null || nameLine.trim().isEmpty()) {
-                errors.add("ERROR: Missing user name & Id at line " + (i + 1));
-                continue;
+        try (RecordReader reader = fileManager.openRecords(usersTXT)) {
+            LineRecord record;
+            while ((record = reader.next()) != null) {
+                User user = parseUser(record.getHeaderLine(), record.getDetailLine(), record.getLineNumber(), validate);
+                if (user != null) {
+                    users.add(user);
+                }
             }
-            
-            String[] nameData = nameLine.split(",");
-            if (nameData.length != 2) {
-                errors.add("ERROR: Incorrect user line format at line " + (i + 1));
-                continue;
+        } catch (IOException e) {
+            System.out.println("Failed to read file " + usersTXT);
+        }
+    }
+
+    private User parseUser(String nameLine, String moviesLine, int line, boolean validate) {
+        if (nameLine == null || nameLine.trim().isEmpty()) {
+            errors.add("ERROR: Missing user name & Id at line " + line);
+            return null;
+        }
+        
+        String[] nameData = nameLine.split(",");
+        if (nameData.length != 2) {
+            errors.add("ERROR: Incorrect user line format at line " + line);
+            return null;
+        }
+        
+        String name = nameData[0].trim();
+        String id = nameData[1].trim();
+        
+        if (name.isEmpty()) {
+            errors.add("ERROR: Empty user name at line " + line);
+            return null;
+        }
+        if (id.isEmpty()) {
+            errors.add("ERROR: Empty user ID at line " + line);
+            return null;
+        }
+
+        if (moviesLine == null) {
+            errors.add("ERROR: Empty liked movies at line " + (line + 1));
+            return null;
+        }
+
+        boolean noLikedMovies = moviesLine.trim().isEmpty();
+        if (!noLikedMovies) {
+            String[] checkLiked = moviesLine.trim().split("\\s+");
+
+            if (checkLiked.length > 1 && !moviesLine.contains(",")) {
+                errors.add("ERROR: Liked Movie must be separated by a comma at line " + (line + 1));
+                return null;
             }
-            
-            String name = nameData[0].trim();
-            String id = nameData[1].trim();
-            
-            if (name.isEmpty()) {
-                errors.add("ERROR: Empty user name at line " + (i + 1));
-                continue;
+        }
+
+        if (validate && !validateOnLoad(userError(name, id), id, validatedUserIds::add)) {
+            return null;
+        }
+
+        List<String> likedMovies = new ArrayList<>();
+        if(noLikedMovies){
+            likedMovies.add("");
+        }
+        else{
+            for (String movie : moviesLine.split(",")) {
+                likedMovies.add(movie.trim());
             }
-            if (id.isEmpty()) {
-                errors.add("ERROR: Empty user ID at line " + (i + 1));
-                continue;
+        }
+        
+        return new User(name, id, likedMovies);
+    }
+
+    // Same checks and messages as loadMovies, but fields are located by scanning the mapped file
+    // bytes and Strings are only created for records that pass the format checks
+    public void loadMoviesMapped(String moviesTXT) {
+        if (moviesTXT == null || moviesTXT.trim().isEmpty()) {
+            errors.add("ERROR: Invalid movie file path");
+            return;
+        }
+
+        File movieFile = new File(moviesTXT);
+        if (!movieFile.exists()) {
+            errors.add("ERROR: Movie file does not exist at " + moviesTXT);
+            return;
+        }
+
+        this.movies = new ArrayList<>();
+        this.movieCatalog = null;
+        try (MappedRecordReader reader = MappedRecordReader.open(moviesTXT)) {
+            while (reader.next()) {
+                Movie movie = parseMovie(reader, errors);
+                if (movie != null) {
+                    movies.add(movie);
+                }
             }
+        } catch (IOException e) {
+            System.out.println("Failed to read file " + moviesTXT);
+        }
+        indexMovies();
+    }
 
-            if (moviesLine == null) {
-                errors.add("ERROR: Empty liked movies at line " + (i + 2));
-                continue;
+    private Movie parseMovie(MappedRecordReader reader, List<String> errorSink) {
+        int line = reader.getLineNumber();
+        int headerStart = reader.getHeaderStart();
+        int headerEnd = reader.getHeaderEnd();
+
+        if (reader.isBlank(headerStart, headerEnd)) {
+            errorSink.add("ERROR: Missing movie title & Id at line " + line);
+            return null;
+        }
+
+        int[] fields = reader.split(headerStart, headerEnd);
+        if (fields[0] != 2) {
+            errorSink.add("ERROR: Incorrect movie line format at line " + line);
+            return null;
+        }
+
+        int titleStart = reader.trimStart(fields[1], fields[2]);
+        int titleEnd = reader.trimEnd(titleStart, fields[2]);
+        int idStart = reader.trimStart(fields[3], fields[4]);
+        int idEnd = reader.trimEnd(idStart, fields[4]);
+
+        if (titleStart == titleEnd) {
+            errorSink.add("ERROR: Empty movie title at line " + line);
+            return null;
+        }
+        if (idStart == idEnd) {
+            errorSink.add("ERROR: Empty movie ID at line " + line);
+            return null;
+        }
+
+        int genresStart = reader.getDetailStart();
+        int genresEnd = reader.getDetailEnd();
+        if (reader.isBlank(genresStart, genresEnd)) {
+            errorSink.add("ERROR: Empty movie genres at line " + (line + 1));
+            return null;
+        }
+
+        if (reader.hasInnerWhitespace(genresStart, genresEnd) && !reader.contains(genresStart, genresEnd, (byte) ',')) {
+            errorSink.add("ERROR: Movie genres must be separated by a comma at line " + (line + 1));
+            return null;
+        }
+
+        String title = reader.decode(titleStart, titleEnd);
+        String id = reader.decode(idStart, idEnd);
+
+        fields = reader.split(genresStart, genresEnd);
+        List<String> genres = new ArrayList<>(fields[0]);
+        for (int f = 0; f < fields[0]; f++) {
+            genres.add(genreDictionary.canonical(reader.decodeTrimmed(fields[2 * f + 1], fields[2 * f + 2])));
+        }
+
+        return new Movie(title, id, genres);
+    }
+
+    public void loadUsersMapped(String usersTXT) {
+        if (usersTXT == null || usersTXT.trim().isEmpty()) {
+            errors.add("ERROR: Invalid user file path");
+            return;
+        }
+
+        File userFile = new File(usersTXT);
+        if (!userFile.exists()) {
+            errors.add("ERROR: User file does not exist at " + usersTXT);
+            return;
+        }
+
+        this.users.clear();
+        try (MappedRecordReader reader = MappedRecordReader.open(usersTXT)) {
+            while (reader.next()) {
+                User user = parseUser(reader, errors);
+                if (user != null) {
+                    users.add(user);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Failed to read file " + usersTXT);
+        }
+    }
+
+    private User parseUser(MappedRecordReader reader, List<String> errorSink) {
+        int line = reader.getLineNumber();
+        int headerStart = reader.getHeaderStart();
+        int headerEnd = reader.getHeaderEnd();
+
+        if (reader.isBlank(headerStart, headerEnd)) {
+            errorSink.add("ERROR: Missing user name & Id at line " + line);
+            return null;
+        }
+
+        int[] fields = reader.split(headerStart, headerEnd);
+        if (fields[0] != 2) {
+            errorSink.add("ERROR: Incorrect user line format at line " + line);
+            return null;
+        }
+
+        int nameStart = reader.trimStart(fields[1], fields[2]);
+        int nameEnd = reader.trimEnd(nameStart, fields[2]);
+        int idStart = reader.trimStart(fields[3], fields[4]);
+        int idEnd = reader.trimEnd(idStart, fields[4]);
+
+        if (nameStart == nameEnd) {
+            errorSink.add("ERROR: Empty user name at line " + line);
+            return null;
+        }
+        if (idStart == idEnd) {
+            errorSink.add("ERROR: Empty user ID at line " + line);
+            return null;
+        }
+
+        int moviesStart = reader.getDetailStart();
+        int moviesEnd = reader.getDetailEnd();
+        List<String> likedMovies = new ArrayList<>();
+        if (reader.isBlank(moviesStart, moviesEnd)) {
+            likedMovies.add("");
+        }
+        else {
+            if (reader.hasInnerWhitespace(moviesStart, moviesEnd) && !reader.contains(moviesStart, moviesEnd, (byte) ',')) {
+                errorSink.add("ERROR: Liked Movie must be separated by a comma at line " + (line + 1));
+                return null;
             }
 
-            List<String> likedMovies = new ArrayList<>();
-            if(moviesLine.trim().isEmpty()){
-                likedMovies.add("");
+            fields = reader.split(moviesStart, moviesEnd);
+            for (int f = 0; f < fields[0]; f++) {
+                likedMovies.add(reader.decodeTrimmed(fields[2 * f + 1], fields[2 * f + 2]));
             }
-            else{
-                String[] checkLiked = moviesLine.trim().split("\\s+");
+        }
 
-                if (checkLiked.length > 1 && !moviesLine.contains(",")) {
-                    errors.add("ERROR: Liked Movie must be separated by a comma at line " + (i + 2));
-                    continue;
-                }
+        return new User(reader.decode(nameStart, nameEnd), reader.decode(idStart, idEnd), likedMovies);
+    }
+
+    public void loadUsersParallel(String usersTXT) {
+        loadUsersParallel(usersTXT, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    // Each chunk is parsed into its own user and error lists, which are appended in file order
+    // so users, errors and their line numbers match loadUsers
+    void loadUsersParallel(String usersTXT, int chunkCount) {
+        if (usersTXT == null || usersTXT.trim().isEmpty()) {
+            errors.add("ERROR: Invalid user file path");
+            return;
+        }
 
-                for (String movie : moviesLine.split(",")) {
-                    likedMovies.add(movie.trim());
+        File userFile = new File(usersTXT);
+        if (!userFile.exists()) {
+            errors.add("ERROR: User file does not exist at " + usersTXT);
+            return;
+        }
+
+        this.users.clear();
+        try (FileChannel channel = FileChannel.open(userFile.toPath(), StandardOpenOption.READ)) {
+            List<MappedRecordReader.Chunk> chunks = MappedRecordReader.chunks(channel, chunkCount, MappedRecordReader.DEFAULT_WINDOW_SIZE);
+            List<List<User>> chunkUsers = new ArrayList<>(Collections.nCopies(chunks.size(), null));
+            List<List<String>> chunkErrors = new ArrayList<>(Collections.nCopies(chunks.size(), null));
+            IOException[] failure = new IOException[1];
+
+            IntStream.range(0, chunks.size()).parallel().forEach(k -> {
+                MappedRecordReader.Chunk chunk = chunks.get(k);
+                List<User> parsedUsers = new ArrayList<>();
+                List<String> parseErrors = new ArrayList<>();
+                try (MappedRecordReader reader = new MappedRecordReader(channel, chunk.getStart(), chunk.getEnd(),
+                        chunk.getFirstLineNumber(), MappedRecordReader.DEFAULT_WINDOW_SIZE)) {
+                    while (reader.next()) {
+                        User user = parseUser(reader, parseErrors);
+                        if (user != null) {
+                            parsedUsers.add(user);
+                        }
+                    }
+                } catch (IOException e) {
+                    failure[0] = e;
                 }
+                chunkUsers.set(k, parsedUsers);
+                chunkErrors.set(k, parseErrors);
+            });
+            if (failure[0] != null) throw failure[0];
+
+            for (int k = 0; k < chunks.size(); k++) {
+                users.addAll(chunkUsers.get(k));
+                errors.addAll(chunkErrors.get(k));
             }
-            
-            users.add(new User(name, id, likedMovies));
+        } catch (IOException e) {
+            System.out.println("Failed to read file " + usersTXT);
         }
     }
 
+    public void loadDataMapped(String movieTXT, String usersTXT){
+        loadMoviesMapped(movieTXT);
+        loadUsersMapped(usersTXT);
+    }
+
     public void loadData(String movieTXT, String usersTXT){
         loadMovies(movieTXT);
         loadUsers(usersTXT);
     }
 
     public void validateData(){
-        Set<String> moviesUnique = new HashSet<>();
-        Set<String> userUnique = new HashSet<>();
+        resetValidation(movies.size(), users.size());
 
         for (Movie movie : movies) {
-            if (!Validators.validMovieTitle(movie.getMovieTitle())) {
-                errors.add("ERROR: Movie Title " + movie.getMovieTitle() + " is wrong");
+            if (!validateMovie(movie)) {
                 return;
             }
+        }
+        registeredCatalog = catalogIndex;
 
-            if (!Validators.validMovieIdLetters(movie.getMovieId(), movie.getMovieTitle())){
-                errors.add("ERROR: Movie Id letters " + movie.getMovieId() + " are wrong");
+        for (User user : users) {
+            String error = userError(user.getUserName(), user.getUserId());
+            if (error != null) {
+                errors.add(error);
                 return;
             }
+            validatedUserIds.add(user.getUserId());
+        }
+    }
 
-            if(!Validators.validMovieIdUniqueNumbers(movie.getMovieId(), movie.getMovieTitle())){
-                errors.add("ERROR: Movie Id numbers " + movie.getMovieId() + " are wrong");
-                return;
-            }
+    public ValidationReport validateAllData() {
+        return validateAllData(ValidationReport.DEFAULT_MAX_ERRORS);
+    }
 
-            if(!Validators.validMovieId(movie.getMovieId(), movie.getMovieTitle(), moviesUnique)){
-                errors.add("ERROR: Movie Id numbers " + movie.getMovieId() + " are not unique");
-                return;
+    // Collect-all counterpart of validateData: every movie and user is checked and each failure
+    // is reported with its record index instead of stopping at the first one. Per-record checks
+    // run in parallel; uniqueness is then checked in record order against the records that
+    // passed, so a duplicate is always blamed on its later occurrence. The first error is also
+    // added to errors, which is the same error validateData would have reported.
+    public ValidationReport validateAllData(int maxErrors) {
+        resetValidation(movies.size(), users.size());
+
+        String[] movieErrors = new String[movies.size()];
+        IntStream.range(0, movies.size()).parallel().forEach(i -> {
+            Movie movie = movies.get(i);
+            movieErrors[i] = movieFormatError(movie.getMovieTitle(), movie.getMovieId());
+        });
+
+        String[] userErrors = new String[users.size()];
+        IntStream.range(0, users.size()).parallel().forEach(i -> {
+            User user = users.get(i);
+            userErrors[i] = userFormatError(user.getUserName(), user.getUserId());
+        });
+
+        ValidationReport report = new ValidationReport(maxErrors);
+        String firstError = null;
+        boolean everyMovieRegistered = true;
+        for (int i = 0; i < movieErrors.length; i++) {
+            Movie movie = movies.get(i);
+            String error = movieErrors[i] != null ? movieErrors[i] : movieUniquenessError(movie.getMovieTitle(), movie.getMovieId());
+            if (error != null) {
+                if (firstError == null) firstError = error;
+                report.add(new ValidationError(ValidationError.RecordType.MOVIE, i, error));
+                everyMovieRegistered = false;
+            } else {
+                movieIdRegistry.add(movie.getMovieId());
             }
-            moviesUnique.add(movie.getMovieId());
         }
 
-        for (User user : users) {
-            if (!Validators.validUserName(user.getUserName())){
-                errors.add("ERROR: User Name " + user.getUserName() + " is wrong");
-                return;
+        for (int i = 0; i < userErrors.length; i++) {
+            User user = users.get(i);
+            String error = userErrors[i] != null ? userErrors[i] : userUniquenessError(user.getUserId());
+            if (error != null) {
+                if (firstError == null) firstError = error;
+                report.add(new ValidationError(ValidationError.RecordType.USER, i, error));
+            } else {
+                validatedUserIds.add(user.getUserId());
             }
+        }
 
-            if(!Validators.validUserIdFormat(user.getUserId())){
-                errors.add("ERROR: User Id " + user.getUserId() + " format is wrong");
-                return;
-            }
+        if (everyMovieRegistered) {
+            registeredCatalog = catalogIndex;
+        }
+        if (firstError != null) {
+            errors.add(firstError);
+        }
+        return report;
+    }
 
-            if (!Validators.validUserId(user.getUserId(), userUnique)){
-                errors.add("ERROR: User Id " + user.getUserId() + " is duplicated");
-                return;
-            }
+    // Loads and validates in one pass over each file. Format errors are still reported for every
+    // record, but once a record fails validation no further records are validated or built, and
+    // that validation error is appended after the format errors, so getErrors() matches
+    // loadData followed by validateData.
+    public void loadAndValidateData(String movieTXT, String usersTXT) {
+        resetValidation(0, 0);
+        deferredValidationError = null;
 
-            
-            userUnique.add(user.getUserId());
+        loadMovies(movieTXT, true);
+        // Movies after a failed one are never built, so every loaded movie is registered
+        registeredCatalog = catalogIndex;
+        loadUsers(usersTXT, true);
+
+        if (deferredValidationError != null) {
+            errors.add(deferredValidationError);
+            deferredValidationError = null;
         }
     }
 
-    public void createRecommendedMovies() {
-        Set<String> movieIdsSet = new HashSet<>();
-        for (Movie movie : movies) {
-            movieIdsSet.add(movie.getMovieId());
+    // The ID sets are presized so validating millions of records never rehashes them
+    private void resetValidation(int expectedMovies, int expectedUsers) {
+        movieIdRegistry = new MovieIdRegistry(movieIdDigits, expectedMovies);
+        registeredCatalog = null;
+        validatedUserIds = new HashSet<>(Math.max(16, (int) (expectedUsers / 0.75f) + 1));
+    }
+
+    private boolean validateOnLoad(String error, String id, Consumer<String> register) {
+        if (deferredValidationError != null) return false;
+
+        if (error != null) {
+            deferredValidationError = error;
+            return false;
         }
+        register.accept(id);
+        return true;
+    }
 
-        for (User user : users) {
-            Set<String> likedGenres = new HashSet<>();
-            List<String> invalidMovies = new ArrayList<>();
+    // Checks one movie against the IDs registered so far and registers it when valid, so movies
+    // added after validateData can be validated without rescanning the catalog
+    public boolean validateMovie(Movie movie) {
+        String error = checkMovie(movie);
+        if (error != null) {
+            errors.add(error);
+            return false;
+        }
+        movieIdRegistry.add(movie.getMovieId());
+        return true;
+    }
 
-            for (String likedMovieId : user.getLikedMoviesIds()) {
-                if (likedMovieId == null || likedMovieId.trim().isEmpty()) {
-                    continue;
-                }
+    // The error validateMovie would report for the movie, or null; records and registers nothing
+    public String checkMovie(Movie movie) {
+        return movieError(movie.getMovieTitle(), movie.getMovieId());
+    }
 
-                if (!movieIdsSet.contains(likedMovieId)) {
-                    invalidMovies.add(likedMovieId);
-                } else {
-                    for (Movie movie : movies) {
-                        if (movie.getMovieId().equals(likedMovieId.trim())) {
-                            likedGenres.addAll(movie.getMovieGenres());
-                        }
-                    }
-                }
-            }
+    private String movieError(String title, String id) {
+        String error = movieFormatError(title, id);
+        return error != null ? error : movieUniquenessError(title, id);
+    }
+
+    // Checks that only look at the record itself, so they can run on any thread
+    private String movieFormatError(String title, String id) {
+        if (!Validators.validMovieTitle(title)) {
+            return "ERROR: Movie Title " + title + " is wrong";
+        }
+
+        if (!Validators.validMovieIdLetters(id, title)){
+            return "ERROR: Movie Id letters " + id + " are wrong";
+        }
+
+        if(!Validators.validMovieIdUniqueNumbers(id, title, movieIdDigits)){
+            return "ERROR: Movie Id numbers " + id + " are wrong";
+        }
+        return null;
+    }
+
+    private String movieUniquenessError(String title, String id) {
+        if(!Validators.validMovieId(id, title, movieIdRegistry)){
+            return "ERROR: Movie Id numbers " + id + " are not unique";
+        }
+        return null;
+    }
+
+    private String userError(String name, String id) {
+        String error = userFormatError(name, id);
+        return error != null ? error : userUniquenessError(id);
+    }
+
+    private static String userFormatError(String name, String id) {
+        if (!Validators.validUserName(name)){
+            return "ERROR: User Name " + name + " is wrong";
+        }
+
+        if(!Validators.validUserIdFormat(id)){
+            return "ERROR: User Id " + id + " format is wrong";
+        }
+        return null;
+    }
+
+    private String userUniquenessError(String id) {
+        if (!Validators.validUserId(id, validatedUserIds)){
+            return "ERROR: User Id " + id + " is duplicated";
+        }
+        return null;
+    }
+
+    public boolean loadSnapshot(String snapshotPath, String movieTXT, String usersTXT) {
+        if (!new File(snapshotPath).exists() || !new File(movieTXT).exists() || !new File(usersTXT).exists()) {
+            return false;
+        }
+
+        try {
+            CatalogSnapshot snapshot = CatalogSnapshot.read(snapshotPath, CatalogSnapshot.checksum(movieTXT, usersTXT), movieIdDigits);
+            if (snapshot == null) return false;
+
+            setMovies(snapshot.getMovies());
+            setUsers(snapshot.getUsers());
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public void writeSnapshot(String snapshotPath, String movieTXT, String usersTXT) {
+        if (!errors.isEmpty()) return;
+
+        try {
+            new CatalogSnapshot(movies, users).write(snapshotPath, CatalogSnapshot.checksum(movieTXT, usersTXT), movieIdDigits);
+        } catch (IOException e) {
+            System.out.println("Failed to write to file " + snapshotPath);
+        }
+    }
+
+    // Loads from the snapshot when it matches the text files, otherwise loads and validates the
+    // text files and refreshes the snapshot if they are valid
+    public void loadValidatedData(String movieTXT, String usersTXT, String snapshotPath) {
+        if (loadSnapshot(snapshotPath, movieTXT, usersTXT)) return;
+
+        loadData(movieTXT, usersTXT);
+        validateData();
+        writeSnapshot(snapshotPath, movieTXT, usersTXT);
+    }
+
+    public void createRecommendedMovies() {
+        if (parallel) {
+            createRecommendedMoviesInParallel();
+        } else {
+            createRecommendedMoviesSequentially();
+        }
+        recommendedUsers = users;
+        recommendedIndex = catalogIndex;
+        genreUserIndex = null;
+    }
+
+    private void createRecommendedMoviesSequentially() {
+        RecommendationEngine engine = prepareEngine();
+        for (User user : users) {
+            List<String> invalidMovies = findInvalidMovies(user);
 
             if (!invalidMovies.isEmpty()) {
                 errors.add("ERROR: User " + user.getUserId() + " liked movie IDs not in movies: " + String.join(", ", invalidMovies));
@@ -261,17 +868,224 @@ public class MovieRecommendationSystem {
                 continue;
             }
 
-            Set<String> recommendedMovies = new HashSet<>();
-            for (String genre : likedGenres) {
-                for (Movie movie : movies) {
-                    if (movie.getMovieGenres().contains(genre) && !user.getLikedMoviesIds().contains(movie.getMovieId())) {
-                        recommendedMovies.add(movie.getMovieTitle());
-                    }
-                }
+            user.setRecommendedMovieIndices(movies, engine.recommend(user));
+        }
+    }
+
+    // Users are checked and recommended concurrently, then errors are appended in user order so
+    // the outcome matches the sequential loop: every invalid user reports, and nobody after the
+    // first error gets recommendations
+    private void createRecommendedMoviesInParallel() {
+        int userCount = users.size();
+        String[] userErrors = new String[userCount];
+
+        IntStream.range(0, userCount).parallel().forEach(i -> {
+            User user = users.get(i);
+            List<String> invalidMovies = findInvalidMovies(user);
+            if (!invalidMovies.isEmpty()) {
+                userErrors[i] = "ERROR: User " + user.getUserId() + " liked movie IDs not in movies: " + String.join(", ", invalidMovies);
             }
+        });
 
-            user.setRecommendedMoviesTitles(new ArrayList<>(recommendedMovies));
+        int recommendedCount = 0;
+        if (errors.isEmpty()) {
+            while (recommendedCount < userCount && userErrors[recommendedCount] == null) {
+                recommendedCount++;
+            }
         }
+
+        RecommendationEngine engine = prepareEngine();
+        IntStream.range(0, recommendedCount).parallel().forEach(i -> {
+            User user = users.get(i);
+            user.setRecommendedMovieIndices(movies, engine.recommend(user));
+        });
+
+        for (int i = recommendedCount; i < userCount; i++) {
+            if (userErrors[i] != null) {
+                errors.add(userErrors[i]);
+            }
+            users.get(i).setRecommendedMoviesTitles(new ArrayList<>());
+        }
+    }
+
+    // ========== Runtime Catalog Changes ==========
+
+    // Adds a movie at runtime. When recommendations are current, only those the movie can
+    // change are recomputed: with the GENRE, BITSET or RANKED engine, the users who liked a movie
+    // sharing one of its genres. Other engines recompute every user. Returns false, changing
+    // nothing, errors included, when the movie is invalid; checkMovie tells why.
+    public boolean addMovie(Movie movie) {
+        requireModifiableMovies();
+        registerCatalogIds();
+        if (checkMovie(movie) != null) return false;
+
+        boolean current = recommendationsCurrent();
+        movie.setGenreIds(genreDictionary.encode(movie.getMovieGenres()));
+        movies.add(movie);
+        movieIdRegistry.add(movie.getMovieId());
+        catalogIndex.appendMovie();
+        catalogChanged(current);
+        if (current) {
+            recommendAffectedUsers(movie.getGenreIds());
+        }
+        return true;
+    }
+
+    // Removes the first movie with the ID, recomputing recommendations like addMovie. Later
+    // movies move down one catalog position, and the positions users store are shifted to match;
+    // users holding positions into an earlier movie list get their IDs and titles back instead.
+    // Returns false, changing nothing, when no movie has the ID or a user still likes it.
+    public boolean removeMovie(String movieId) {
+        requireModifiableMovies();
+        int position = catalogIndex.getMovieIndex(movieId);
+        if (position < 0) return false;
+        registerCatalogIds();
+
+        // Checked against the current users, since they may have changed since the last run
+        for (User user : users) {
+            if (user.getLikedMoviesIds().contains(movieId)) return false;
+        }
+
+        boolean current = recommendationsCurrent();
+        int[] genreIds = catalogIndex.getGenreIds(position);
+
+        movies.remove(position);
+        movieIdRegistry.remove(movieId);
+        for (User user : users) {
+            user.removeMovieIndex(movies, position);
+        }
+        catalogIndex = new CatalogIndex(movies, null, genreDictionary);
+        registeredCatalog = catalogIndex;
+        catalogChanged(current);
+        if (current) {
+            recommendAffectedUsers(genreIds);
+        }
+        return true;
+    }
+
+    private void requireModifiableMovies() {
+        if (movieCatalog != null) {
+            throw new IllegalStateException("Movies backed by a MovieCatalog can't be changed");
+        }
+    }
+
+    // Only validation fills the registry, so after a snapshot load, loadData or setMovies it is
+    // rebuilt from the catalog's well-formed IDs before the first change
+    private void registerCatalogIds() {
+        if (registeredCatalog == catalogIndex) return;
+
+        MovieIdRegistry registry = new MovieIdRegistry(movieIdDigits, catalogIndex.size());
+        for (int i = 0; i < catalogIndex.size(); i++) {
+            String id = catalogIndex.getId(i);
+            if (Validators.validMovieIdUniqueNumbers(id, catalogIndex.getTitle(i), movieIdDigits) && registry.isAvailable(id)) {
+                registry.add(id);
+            }
+        }
+        movieIdRegistry = registry;
+        registeredCatalog = catalogIndex;
+    }
+
+    private boolean recommendationsCurrent() {
+        return errors.isEmpty() && recommendedUsers == users && recommendedIndex == catalogIndex;
+    }
+
+    private void catalogChanged(boolean recommendationsCurrent) {
+        alsRecommender = null;
+        if (recommendationCache != null) {
+            recommendationCache.clear();
+        }
+        if (recommendationsCurrent) {
+            recommendedIndex = catalogIndex;
+        }
+    }
+
+    // Built on first use after a run; a changed movie is never liked, so it stays valid across
+    // catalog changes. It only picks the users to recompute: users added or edited through
+    // getUsers() since the build aren't in it, and it is rebuilt if the user count changed.
+    private GenreUserIndex genreUserIndex() {
+        if (genreUserIndex == null || recommendedUsers != users || genreUserIndex.getUserCount() != users.size()) {
+            genreUserIndex = new GenreUserIndex(catalogIndex, users);
+        }
+        return genreUserIndex;
+    }
+
+    private void recommendAffectedUsers(int[] genreIds) {
+        int[] affected = perUserEngine() ? genreUserIndex().getUsers(genreIds) : IntStream.range(0, users.size()).toArray();
+
+        RecommendationEngine engine = prepareEngine();
+        IntStream recompute = IntStream.of(affected);
+        if (parallel) {
+            recompute = recompute.parallel();
+        }
+        recompute.forEach(i -> users.get(i).setRecommendedMovieIndices(movies, engine.recommend(users.get(i))));
+    }
+
+    // Whether a user's recommendations depend only on the catalog and their own likes, as with
+    // the genre engines; the other engines learn from every user's likes
+    private boolean perUserEngine() {
+        return recommendationEngine == null && (recommendationMode == RecommendationMode.GENRE
+            || recommendationMode == RecommendationMode.BITSET || recommendationMode == RecommendationMode.RANKED);
+    }
+
+    private List<String> findInvalidMovies(User user) {
+        List<String> invalidMovies = new ArrayList<>();
+        for (String likedMovieId : user.getLikedMoviesIds()) {
+            if (likedMovieId == null || likedMovieId.trim().isEmpty()) {
+                continue;
+            }
+            if (!catalogIndex.containsId(likedMovieId)) {
+                invalidMovies.add(likedMovieId);
+            }
+        }
+        return invalidMovies;
+    }
+
+    // The custom engine, or the selected mode's engine built with the current settings, prepared
+    // for this run with the catalog index and a read-only view of the users
+    private RecommendationEngine prepareEngine() {
+        RecommendationEngine engine = recommendationEngine != null ? recommendationEngine : engineFor(recommendationMode);
+        engine.prepare(catalogIndex, Collections.unmodifiableList(users));
+        return engine;
+    }
+
+    private RecommendationEngine engineFor(RecommendationMode mode) {
+        switch (mode) {
+            case BITSET:
+                // Kept across runs: it only rebuilds its bitsets when the catalog index changes
+                if (bitsetEngine == null) {
+                    bitsetEngine = new BitsetEngine();
+                }
+                return bitsetEngine;
+            case RANKED:
+                return new RankedEngine(topK);
+            case COLLABORATIVE:
+                return new LikeModelEngine(likes -> new CoLikeRecommender(likes, neighborCount), topK);
+            case USER_NEIGHBORS:
+                return new LikeModelEngine(MinHashRecommender::new, topK);
+            case ALS:
+                return new LikeModelEngine(this::trainAls, topK);
+            default:
+                return new GenreEngine(recommendationCache);
+        }
+    }
+
+    // A factor file trained on the same likes is reused, and only the missing iterations are run
+    private AlsRecommender trainAls(LikeMatrix likes) {
+        alsRecommender = new AlsRecommender(likes);
+        if (alsFactorsPath != null) {
+            alsRecommender.read(alsFactorsPath);
+        }
+        if (alsRecommender.getIterations() >= alsIterations) return alsRecommender;
+
+        alsRecommender.train(alsIterations - alsRecommender.getIterations());
+        if (alsFactorsPath != null) {
+            try {
+                alsRecommender.write(alsFactorsPath);
+            } catch (IOException e) {
+                System.out.println("Failed to write to file " + alsFactorsPath);
+            }
+        }
+        return alsRecommender;
     }
 
     public void writeRecommendedMovies(String RecTXT) {
@@ -291,6 +1105,179 @@ public class MovieRecommendationSystem {
         fileManager.writeFile(RecTXT, recommendedMovies);
     }
 
+    // Produces the same file as createRecommendedMovies followed by writeRecommendedMovies, but
+    // each user's lines are written as soon as they are computed and nothing is kept on the User.
+    // Liked IDs are checked for every user first, since any error replaces the whole output.
+    public void writeRecommendedMoviesStreaming(String RecTXT) {
+        if (errors.isEmpty()) {
+            for (User user : users) {
+                List<String> invalidMovies = findInvalidMovies(user);
+                if (!invalidMovies.isEmpty()) {
+                    errors.add("ERROR: User " + user.getUserId() + " liked movie IDs not in movies: " + String.join(", ", invalidMovies));
+                }
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            fileManager.writeFile(RecTXT, List.of(errors.get(0)));
+            return;
+        }
+
+        RecommendationEngine engine = prepareEngine();
+        try (BufferedWriter writer = fileManager.openWriter(RecTXT)) {
+            String[] lines = new String[Math.min(STREAMING_BATCH_SIZE, users.size())];
+            for (int batchStart = 0; batchStart < users.size(); batchStart += STREAMING_BATCH_SIZE) {
+                int start = batchStart;
+                int batchSize = Math.min(STREAMING_BATCH_SIZE, users.size() - start);
+                IntStream batch = IntStream.range(0, batchSize);
+                if (parallel) {
+                    batch = batch.parallel();
+                }
+                batch.forEach(i -> lines[i] = renderTitles(engine.recommend(users.get(start + i))));
+
+                for (int i = 0; i < batchSize; i++) {
+                    User user = users.get(start + i);
+                    writer.write(user.getUserName() + ", " + user.getUserId());
+                    writer.newLine();
+                    writer.write(lines[i]);
+                    writer.newLine();
+                    lines[i] = null;
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Failed to write to file " + RecTXT);
+        }
+    }
+
+    // ========== Delta Runs ==========
+
+    // Creates and writes recommendations like createRecommendedMovies followed by
+    // writeRecommendedMovies, but reuses the previous run's recTXT lines for users whose record
+    // has not changed. statePath keeps a fingerprint of every user record from that run; it is
+    // only trusted while movieTXT, the engine settings and recTXT are as it left them. With the
+    // GENRE, BITSET or RANKED engine only changed and added users are recomputed; the other
+    // engines learn from every user's likes, so any changed, added or removed user recomputes
+    // everyone, and a custom engine always does. Returns how many users were recomputed, or -1
+    // when the run ends in an error, which is written like writeRecommendedMovies does.
+    public int writeRecommendedMoviesDelta(String movieTXT, String recTXT, String statePath) {
+        if (!errors.isEmpty() || users.stream().anyMatch(user -> !findInvalidMovies(user).isEmpty())) {
+            createRecommendedMovies();
+            writeRecommendedMovies(recTXT);
+            return -1;
+        }
+
+        String settings = deltaSettings();
+        long catalogVersion = 0;
+        RecommendationState previous = null;
+        Map<String, String> previousLines = Map.of();
+        if (settings != null) {
+            try {
+                catalogVersion = CatalogSnapshot.checksum(movieTXT);
+                if (new File(statePath).exists() && new File(recTXT).exists()) {
+                    previous = RecommendationState.read(statePath, catalogVersion, settings, CatalogSnapshot.checksum(recTXT));
+                }
+            } catch (IOException e) {
+                settings = null;
+            }
+            if (previous != null) {
+                previousLines = readRecommendationLines(recTXT);
+            }
+        }
+
+        boolean[] recompute = new boolean[users.size()];
+        int recomputeCount = 0;
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            if (previous == null || !previous.isUnchanged(user) || !previousLines.containsKey(user.getUserId())) {
+                recompute[i] = true;
+                recomputeCount++;
+            }
+        }
+        if (previous != null && !perUserEngine() && (recomputeCount > 0 || previous.size() != users.size())) {
+            Arrays.fill(recompute, true);
+            recomputeCount = users.size();
+        }
+
+        for (int i = 0; i < users.size(); i++) {
+            if (recompute[i]) continue;
+            String line = previousLines.get(users.get(i).getUserId());
+            users.get(i).setRecommendedMoviesTitles(line.isEmpty() ? new ArrayList<>() : new ArrayList<>(Arrays.asList(line.split(", "))));
+        }
+        if (recomputeCount > 0) {
+            RecommendationEngine engine = prepareEngine();
+            IntStream changed = IntStream.range(0, users.size()).filter(i -> recompute[i]);
+            if (parallel) {
+                changed = changed.parallel();
+            }
+            changed.forEach(i -> users.get(i).setRecommendedMovieIndices(movies, engine.recommend(users.get(i))));
+        }
+        recommendedUsers = users;
+        recommendedIndex = catalogIndex;
+        genreUserIndex = null;
+
+        writeRecommendedMovies(recTXT);
+        if (settings != null) {
+            try {
+                RecommendationState.of(catalogVersion, settings, users).write(statePath, CatalogSnapshot.checksum(recTXT));
+            } catch (IOException e) {
+                System.out.println("Failed to write to file " + statePath);
+            }
+        }
+        return recomputeCount;
+    }
+
+    // Everything besides the catalog and the user's record that can change a recommendation, or
+    // null for a custom engine, whose settings are unknown
+    private String deltaSettings() {
+        if (recommendationEngine != null) return null;
+        return recommendationMode + " " + topK + " " + neighborCount + " " + alsIterations;
+    }
+
+    // Each user's titles line in a file written by writeRecommendedMovies, by user ID
+    private Map<String, String> readRecommendationLines(String recTXT) {
+        List<String> lines = fileManager.readFile(recTXT);
+        Map<String, String> titlesByUserId = new HashMap<>(lines.size());
+        for (int i = 0; i + 1 < lines.size(); i += 2) {
+            String header = lines.get(i);
+            titlesByUserId.put(header.substring(header.lastIndexOf(", ") + 2), lines.get(i + 1));
+        }
+        return titlesByUserId;
+    }
+
+    private String renderTitles(int[] movieIndices) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < movieIndices.length; i++) {
+            if (i > 0) line.append(", ");
+            line.append(catalogIndex.getTitle(movieIndices[i]));
+        }
+        return line.toString();
+    }
+
+    // Swaps each user's liked ID list for the catalog positions of those IDs, keeping their order.
+    // Users with an unknown or blank liked ID keep their list, so error messages and output stay
+    // the same. Returns how many users were compacted.
+    public int compactUsers() {
+        int compacted = 0;
+        for (User user : users) {
+            if (compactUser(user)) compacted++;
+        }
+        return compacted;
+    }
+
+    private boolean compactUser(User user) {
+        if (user.isCompact()) return false;
+
+        List<String> likedMoviesIds = user.getLikedMoviesIds();
+        int[] likedIndices = new int[likedMoviesIds.size()];
+        for (int i = 0; i < likedIndices.length; i++) {
+            int index = catalogIndex.getMovieIndex(likedMoviesIds.get(i));
+            if (index < 0) return false;
+            likedIndices[i] = index;
+        }
+        user.setLikedMovieIndices(movies, likedIndices);
+        return true;
+    }
+
     public void printUsers(){
         for(User user: users){
             System.out.println("User Name: " + user.getUserName() + ", User ID: " + user.getUserId());
@@ -300,8 +1287,10 @@ public class MovieRecommendationSystem {
             }
             System.out.println();
             System.out.print("Recommended Movies: ");
-            for (String recMovies: user.getRecommendedMoviesTitles()){
-                System.out.print(recMovies + ", ");
+            if (user.getRecommendedMoviesTitles() != null) {
+                for (String recMovies: user.getRecommendedMoviesTitles()){
+                    System.out.print(recMovies + ", ");
+                }
             }
             System.out.println();
         }
@@ -322,6 +1311,9 @@ public class MovieRecommendationSystem {
         String moviesTXT = "src/main/files/movies.txt";
         String usersTXT = "src/main/files/users.txt";
         String recTXT = "src/main/files/recommendations.txt";
+        String snapshotPath = "src/main/files/catalog.snapshot";
+        String alsFactorsPath = "src/main/files/als.factors";
+        String statePath = "src/main/files/recommendations.state";
 
         File movieFile = new File(moviesTXT);
         File userFile = new File(usersTXT);
@@ -337,11 +1329,15 @@ public class MovieRecommendationSystem {
         }
 
         MovieRecommendationSystem recSystem = new MovieRecommendationSystem();
+        // An optional first argument names the engine, e.g. ALS
+        if (args.length > 0) {
+            recSystem.setRecommendationMode(RecommendationMode.valueOf(args[0]));
+        }
+        recSystem.setAlsFactorsPath(alsFactorsPath);
 
-        recSystem.loadData(moviesTXT, usersTXT);
-        recSystem.validateData();
-        recSystem.createRecommendedMovies();
-        recSystem.writeRecommendedMovies(recTXT);
+        recSystem.loadValidatedData(moviesTXT, usersTXT, snapshotPath);
+        recSystem.compactUsers();
+        recSystem.writeRecommendedMoviesDelta(moviesTXT, recTXT, statePath);
 
         if (!recSystem.getErrors().isEmpty()) {
             System.out.println(recSystem.errors.get(0));
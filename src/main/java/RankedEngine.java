@@ -0,0 +1,64 @@
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+// Scores every genre-sharing candidate by how many of the user's liked genres it has and keeps
+// the topK best in a bounded heap, best first; ties go to the smaller title, then the smaller
+// catalog position. Only the best movie per title is listed, so duplicated titles can leave
+// fewer than topK entries.
+public class RankedEngine implements RecommendationEngine {
+    private final int topK;
+    private CatalogIndex index;
+
+    public RankedEngine(int topK) {
+        this.topK = topK;
+    }
+
+    @Override
+    public void prepare(CatalogIndex index, List<User> users) {
+        this.index = index;
+    }
+
+    @Override
+    public int[] recommend(User user) {
+        BitSet likedGenres = new BitSet(index.getGenreDictionary().size());
+        List<String> likedMoviesIds = user.getLikedMoviesIds();
+        int[] likedMovies = new int[likedMoviesIds.size()];
+        int likedMovieCount = 0;
+        for (String likedMovieId : likedMoviesIds) {
+            int likedIndex = index.getMovieIndex(likedMovieId);
+            if (likedIndex < 0) continue;
+
+            likedMovies[likedMovieCount++] = likedIndex;
+            for (int same = likedIndex; same >= 0; same = index.getNextWithSameId(same)) {
+                for (int genre : index.getGenreIds(same)) {
+                    likedGenres.set(genre);
+                }
+            }
+        }
+        Arrays.sort(likedMovies, 0, likedMovieCount);
+
+        TopKHeap heap = new TopKHeap(topK, index::getTitle);
+        for (int genre = likedGenres.nextSetBit(0); genre >= 0; genre = likedGenres.nextSetBit(genre + 1)) {
+            for (int candidate : index.getGenrePosting(genre)) {
+                if (Arrays.binarySearch(likedMovies, 0, likedMovieCount, index.getFirstWithSameId(candidate)) >= 0) continue;
+
+                // A movie sits in the posting list of each liked genre it has; it is scored from
+                // the first of them only
+                int[] genreIds = index.getGenreIds(candidate);
+                int score = 0;
+                boolean firstLikedGenre = true;
+                for (int g = 0; g < genreIds.length; g++) {
+                    if (!likedGenres.get(genreIds[g]) || CatalogIndex.containsBefore(genreIds, g)) continue;
+                    if (score == 0 && genreIds[g] != genre) firstLikedGenre = false;
+                    score++;
+                }
+                if (firstLikedGenre) {
+                    heap.offer(candidate, score);
+                }
+            }
+        }
+
+        return index.distinctTitles(heap.drainBestFirst());
+    }
+}
@@ -0,0 +1,90 @@
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// Candidate movies of the genre engine keyed by the user's liked-genre signature, the sorted
+// genre IDs, so users who like the same genres share one posting-list walk. Hits and misses
+// count only users served through the cache; see GenreEngine for the rare users it skips. Safe
+// to use from parallel recommendation.
+public class RecommendationCache {
+    public static final int DEFAULT_MAX_ENTRIES = 4096;
+
+    private final int maxEntries;
+    private final Map<Signature, int[]> entries;
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    public RecommendationCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public RecommendationCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new ConcurrentHashMap<>();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+    }
+
+    // Once maxEntries signatures are stored, new ones are still computed but not kept
+    public int[] get(int[] signature, Function<int[], int[]> candidates) {
+        Signature key = new Signature(signature);
+        int[] cached = entries.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        int[] computed = candidates.apply(signature);
+        if (entries.size() < maxEntries) {
+            cached = entries.putIfAbsent(key, computed);
+        }
+        return cached != null ? cached : computed;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public double getHitRatio() {
+        long lookups = getHits() + getMisses();
+        return lookups == 0 ? 0 : getHits() / (double) lookups;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Drops the entries and resets the counters
+    public void clear() {
+        entries.clear();
+        hits.reset();
+        misses.reset();
+    }
+
+    private static final class Signature {
+        private final int[] genreIds;
+        private final int hash;
+
+        Signature(int[] genreIds) {
+            this.genreIds = genreIds;
+            this.hash = Arrays.hashCode(genreIds);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Signature && Arrays.equals(genreIds, ((Signature) other).genreIds);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
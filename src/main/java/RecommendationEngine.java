@@ -0,0 +1,13 @@
+import java.util.List;
+
+// A way of picking movies for users. Each run calls prepare once with the current catalog index
+// and every user, then recommend for the users, possibly from several threads at once, so
+// recommend must only read what prepare built.
+public interface RecommendationEngine {
+
+    // users is read-only; engines that learn from everyone's likes build their model here
+    void prepare(CatalogIndex index, List<User> users);
+
+    // Catalog positions of the movies to recommend, in output order, one per distinct title
+    int[] recommend(User user);
+}
@@ -0,0 +1,8 @@
+public enum RecommendationMode {
+    GENRE,
+    BITSET,
+    RANKED,
+    COLLABORATIVE,
+    USER_NEIGHBORS,
+    ALS
+}
@@ -0,0 +1,115 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// What a delta run needs from the run before it: a fingerprint of every user record that was
+// recommended for, keyed by user ID, plus the catalog version, the engine settings and a checksum
+// of the recommendations file that run wrote. A user whose fingerprint still matches can reuse
+// its line from that file.
+public class RecommendationState {
+    private static final int MAGIC = 0x4D525244;
+    private static final int VERSION = 1;
+
+    private final long catalogVersion;
+    private final String settings;
+    private final Map<String, Long> fingerprints;
+
+    public RecommendationState(long catalogVersion, String settings, Map<String, Long> fingerprints) {
+        this.catalogVersion = catalogVersion;
+        this.settings = settings;
+        this.fingerprints = fingerprints;
+    }
+
+    public static RecommendationState of(long catalogVersion, String settings, List<User> users) {
+        Map<String, Long> fingerprints = new HashMap<>(users.size() * 2);
+        for (User user : users) {
+            fingerprints.put(user.getUserId(), fingerprint(user));
+        }
+        return new RecommendationState(catalogVersion, settings, fingerprints);
+    }
+
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+
+    public String getSettings() {
+        return settings;
+    }
+
+    public int size() {
+        return fingerprints.size();
+    }
+
+    // Whether the user was recommended for last run from exactly this name, ID and liked list
+    public boolean isUnchanged(User user) {
+        Long previous = fingerprints.get(user.getUserId());
+        return previous != null && previous == fingerprint(user);
+    }
+
+    // 64-bit FNV-1a over the name, ID and liked IDs in order, with a separator no field can
+    // contain, finished with a 64-bit mix
+    public static long fingerprint(User user) {
+        long hash = 0xCBF29CE484222325L;
+        hash = hash(hash, user.getUserName());
+        hash = hash(hash, user.getUserId());
+        for (String likedMovieId : user.getLikedMoviesIds()) {
+            hash = hash(hash, likedMovieId);
+        }
+        hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+        hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    private static long hash(long hash, String value) {
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                hash = (hash ^ value.charAt(i)) * 0x100000001B3L;
+            }
+        }
+        return (hash ^ '\n') * 0x100000001B3L;
+    }
+
+    public void write(String statePath, long outputChecksum) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(statePath)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(catalogVersion);
+            out.writeUTF(settings);
+            out.writeLong(outputChecksum);
+
+            out.writeInt(fingerprints.size());
+            for (Map.Entry<String, Long> entry : fingerprints.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeLong(entry.getValue());
+            }
+        }
+    }
+
+    // Returns null when the state is missing or unreadable, was taken with another catalog or
+    // other settings, or the recommendations file has changed since it was written
+    public static RecommendationState read(String statePath, long catalogVersion, String settings, long outputChecksum) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(statePath)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readLong() != catalogVersion
+                || !in.readUTF().equals(settings) || in.readLong() != outputChecksum) {
+                return null;
+            }
+
+            int userCount = in.readInt();
+            Map<String, Long> fingerprints = new HashMap<>(userCount * 2);
+            for (int i = 0; i < userCount; i++) {
+                fingerprints.put(in.readUTF(), in.readLong());
+            }
+            return new RecommendationState(catalogVersion, settings, fingerprints);
+        } catch (IOException | RuntimeException e) {
+            // A truncated or corrupted state is treated like a stale one
+            return null;
+        }
+    }
+}
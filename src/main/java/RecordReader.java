@@ -0,0 +1,30 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+public class RecordReader implements AutoCloseable {
+    private final BufferedReader bufferedReader;
+    private int lineNumber;
+
+    public RecordReader(Reader reader) {
+        this.bufferedReader = new BufferedReader(reader);
+    }
+
+    // Returns the next header/detail pair, or null at end of input. A trailing header
+    // without its detail line is dropped, as the loaders have always done.
+    public LineRecord next() throws IOException {
+        String headerLine = bufferedReader.readLine();
+        if (headerLine == null) return null;
+
+        String detailLine = bufferedReader.readLine();
+        if (detailLine == null) return null;
+
+        lineNumber += 2;
+        return new LineRecord(headerLine, detailLine, lineNumber - 1);
+    }
+
+    @Override
+    public void close() throws IOException {
+        bufferedReader.close();
+    }
+}
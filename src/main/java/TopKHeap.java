@@ -0,0 +1,123 @@
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+// Keeps the k best movies offered, ranked by higher score, then title, then catalog position.
+// The root is the worst entry kept, so a candidate that can't make the cut costs one compare,
+// and titles are only looked up when scores tie.
+public class TopKHeap {
+    private final int capacity;
+    private final IntFunction<String> titles;
+    private int[] indices;
+    private int[] scores;
+    private String[] titleCache;
+    private int size;
+
+    public TopKHeap(int capacity, IntFunction<String> titles) {
+        this.capacity = capacity;
+        this.titles = titles;
+        // Grown on demand, so a large k costs nothing for users with few candidates
+        int initial = Math.min(capacity, 16);
+        this.indices = new int[initial];
+        this.scores = new int[initial];
+        this.titleCache = new String[initial];
+    }
+
+    public void offer(int index, int score) {
+        if (size < capacity) {
+            if (size == indices.length) grow();
+            indices[size] = index;
+            scores[size] = score;
+            titleCache[size] = null;
+            siftUp(size++);
+            return;
+        }
+        if (capacity == 0 || compare(index, score, null, 0) <= 0) return;
+
+        indices[0] = index;
+        scores[0] = score;
+        titleCache[0] = null;
+        siftDown(0);
+    }
+
+    private void grow() {
+        int length = (int) Math.min(capacity, indices.length * 2L);
+        indices = Arrays.copyOf(indices, length);
+        scores = Arrays.copyOf(scores, length);
+        titleCache = Arrays.copyOf(titleCache, length);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Catalog positions of the kept movies, best first; empties the heap
+    public int[] drainBestFirst() {
+        int[] best = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            best[i] = indices[0];
+            size--;
+            move(size, 0);
+            siftDown(0);
+        }
+        return best;
+    }
+
+    // Positive when the candidate ranks above the kept entry at slot
+    private int compare(int index, int score, String title, int slot) {
+        if (score != scores[slot]) return Integer.compare(score, scores[slot]);
+
+        if (title == null) title = titles.apply(index);
+        int byTitle = titleAt(slot).compareTo(title);
+        if (byTitle != 0) return byTitle;
+        return Integer.compare(indices[slot], index);
+    }
+
+    private int compareSlots(int a, int b) {
+        return compare(indices[a], scores[a], titleAt(a), b);
+    }
+
+    private String titleAt(int slot) {
+        if (titleCache[slot] == null) {
+            titleCache[slot] = titles.apply(indices[slot]);
+        }
+        return titleCache[slot];
+    }
+
+    private void siftUp(int slot) {
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (compareSlots(slot, parent) >= 0) break;
+            swap(slot, parent);
+            slot = parent;
+        }
+    }
+
+    private void siftDown(int slot) {
+        while (true) {
+            int worst = slot;
+            int left = 2 * slot + 1;
+            int right = left + 1;
+            if (left < size && compareSlots(left, worst) < 0) worst = left;
+            if (right < size && compareSlots(right, worst) < 0) worst = right;
+            if (worst == slot) return;
+            swap(slot, worst);
+            slot = worst;
+        }
+    }
+
+    private void move(int from, int to) {
+        indices[to] = indices[from];
+        scores[to] = scores[from];
+        titleCache[to] = titleCache[from];
+    }
+
+    private void swap(int a, int b) {
+        int index = indices[a];
+        int score = scores[a];
+        String title = titleCache[a];
+        move(b, a);
+        indices[b] = index;
+        scores[b] = score;
+        titleCache[b] = title;
+    }
+}
@@ -1,3 +1,6 @@
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class User {
@@ -6,6 +9,13 @@ public class User {
     private List<String> likedMoviesIds;
     private List<String> recommendedMoviesTitles;
 
+    // Compact form: catalog positions instead of String lists, resolved through the catalog
+    // only when the lists are read
+    private List<Movie> likedCatalog;
+    private int[] likedMovieIndices;
+    private List<Movie> recommendedCatalog;
+    private int[] recommendedMovieIndices;
+
     public User(String name, String id, List<String> likedMovies) {
         this.userName = name;
         this.userId = id;
@@ -21,13 +31,33 @@ public class User {
     }
 
     public List<String> getLikedMoviesIds() {
+        if (likedMovieIndices != null) {
+            return new CatalogView(likedCatalog, likedMovieIndices, false);
+        }
         return likedMoviesIds;
     }
 
     public List<String> getRecommendedMoviesTitles() {
+        if (recommendedMovieIndices != null) {
+            return new CatalogView(recommendedCatalog, recommendedMovieIndices, true);
+        }
         return recommendedMoviesTitles;
     }
 
+    // Null unless the liked movies were compacted
+    public int[] getLikedMovieIndices() {
+        return likedMovieIndices;
+    }
+
+    // Null unless the recommendations were stored as catalog positions
+    public int[] getRecommendedMovieIndices() {
+        return recommendedMovieIndices;
+    }
+
+    public boolean isCompact() {
+        return likedMovieIndices != null;
+    }
+
     // Setters
     public void setUserName(String name) {
         this.userName = name;
@@ -39,9 +69,81 @@ public class User {
 
     public void setLikedMoviesIds(List<String> likedMovies) {
         this.likedMoviesIds = likedMovies;
+        this.likedCatalog = null;
+        this.likedMovieIndices = null;
     }
 
     public void setRecommendedMoviesTitles(List<String> recommendedMovies) {
         this.recommendedMoviesTitles = recommendedMovies;
+        this.recommendedCatalog = null;
+        this.recommendedMovieIndices = null;
+    }
+
+    // Replaces the liked ID list with the catalog positions of the same IDs, in the same order
+    public void setLikedMovieIndices(List<Movie> catalog, int[] movieIndices) {
+        this.likedMoviesIds = null;
+        this.likedCatalog = catalog;
+        this.likedMovieIndices = movieIndices;
+    }
+
+    public void setRecommendedMovieIndices(List<Movie> catalog, int[] movieIndices) {
+        this.recommendedMoviesTitles = null;
+        this.recommendedCatalog = catalog;
+        this.recommendedMovieIndices = movieIndices;
+    }
+
+    // Keeps the stored catalog positions pointing at the same movies after the movie at position
+    // was removed from catalog: later positions move down by one, and a recommendation of the
+    // removed movie itself is dropped. Positions into any other movie list don't describe this
+    // one, so those lists go back to IDs and titles instead.
+    public void removeMovieIndex(List<Movie> catalog, int position) {
+        if (likedMovieIndices != null) {
+            if (likedCatalog == catalog) {
+                likedMovieIndices = withoutPosition(likedMovieIndices, position);
+            } else {
+                setLikedMoviesIds(new ArrayList<>(getLikedMoviesIds()));
+            }
+        }
+        if (recommendedMovieIndices != null) {
+            if (recommendedCatalog == catalog) {
+                recommendedMovieIndices = withoutPosition(recommendedMovieIndices, position);
+            } else {
+                setRecommendedMoviesTitles(new ArrayList<>(getRecommendedMoviesTitles()));
+            }
+        }
+    }
+
+    private static int[] withoutPosition(int[] movieIndices, int position) {
+        int[] shifted = new int[movieIndices.length];
+        int kept = 0;
+        for (int index : movieIndices) {
+            if (index == position) continue;
+            shifted[kept++] = index > position ? index - 1 : index;
+        }
+        return kept == shifted.length ? shifted : Arrays.copyOf(shifted, kept);
+    }
+
+    // Read-only list of the IDs or titles of the movies at the given catalog positions
+    private static class CatalogView extends AbstractList<String> {
+        private final List<Movie> catalog;
+        private final int[] movieIndices;
+        private final boolean titles;
+
+        CatalogView(List<Movie> catalog, int[] movieIndices, boolean titles) {
+            this.catalog = catalog;
+            this.movieIndices = movieIndices;
+            this.titles = titles;
+        }
+
+        @Override
+        public String get(int index) {
+            Movie movie = catalog.get(movieIndices[index]);
+            return titles ? movie.getMovieTitle() : movie.getMovieId();
+        }
+
+        @Override
+        public int size() {
+            return movieIndices.length;
+        }
     }
 }
@@ -0,0 +1,34 @@
+public class ValidationError {
+    public enum RecordType {
+        MOVIE,
+        USER
+    }
+
+    private final RecordType recordType;
+    private final int recordIndex;
+    private final String message;
+
+    public ValidationError(RecordType recordType, int recordIndex, String message) {
+        this.recordType = recordType;
+        this.recordIndex = recordIndex;
+        this.message = message;
+    }
+
+    public RecordType getRecordType() {
+        return recordType;
+    }
+
+    // 0-based position of the record in the loaded movie or user list
+    public int getRecordIndex() {
+        return recordIndex;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return recordType + " #" + recordIndex + ": " + message;
+    }
+}
@@ -0,0 +1,74 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// Keeps the first maxErrors validation errors in full; errors past the cap are only counted
+public class ValidationReport {
+    public static final int DEFAULT_MAX_ERRORS = 1000;
+
+    private final int maxErrors;
+    private final List<ValidationError> errors;
+    private final Map<ValidationError.RecordType, Integer> counts;
+    private int totalCount;
+
+    public ValidationReport() {
+        this(DEFAULT_MAX_ERRORS);
+    }
+
+    public ValidationReport(int maxErrors) {
+        this.maxErrors = maxErrors;
+        this.errors = new ArrayList<>();
+        this.counts = new EnumMap<>(ValidationError.RecordType.class);
+    }
+
+    public void add(ValidationError error) {
+        totalCount++;
+        counts.merge(error.getRecordType(), 1, Integer::sum);
+        if (errors.size() < maxErrors) {
+            errors.add(error);
+        }
+    }
+
+    public List<ValidationError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    public int getMaxErrors() {
+        return maxErrors;
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public int getCount(ValidationError.RecordType recordType) {
+        return counts.getOrDefault(recordType, 0);
+    }
+
+    public int getDroppedCount() {
+        return totalCount - errors.size();
+    }
+
+    public boolean isTruncated() {
+        return getDroppedCount() > 0;
+    }
+
+    public boolean isEmpty() {
+        return totalCount == 0;
+    }
+
+    // One line per kept error, followed by a summary of the dropped ones if the cap was hit
+    public List<String> toLines() {
+        List<String> lines = new ArrayList<>(errors.size() + 1);
+        for (ValidationError error : errors) {
+            lines.add(error.toString());
+        }
+        if (isTruncated()) {
+            lines.add("... " + getDroppedCount() + " more errors (" + getCount(ValidationError.RecordType.MOVIE)
+                    + " movie, " + getCount(ValidationError.RecordType.USER) + " user in total)");
+        }
+        return lines;
+    }
+}
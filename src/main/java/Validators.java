@@ -1,35 +1,38 @@
-import java.util.HashSet;
 import java.util.Set;
 
 public class Validators {
 
     // ========== User Validation ==========
     public static boolean validUserName(String userName) {
-        if (userName == null || userName.trim().isEmpty()) return false;
+        if (userName == null || isBlank(userName)) return false;
         if (userName.charAt(0) == ' ') return false;
-        return userName.matches("^[A-Za-z]+( [A-Za-z]+)*$");
+        return isWords(userName, false);
     }
-    
+
     public static boolean validUserIdFormat(String userId) {
-        if (userId == null || userId.trim().isEmpty() || userId.length() != 9) return false;
-        return userId.matches("^\\d{8}[A-Za-z]?$|^\\d{9}$");
+        if (userId == null || isBlank(userId) || userId.length() != 9) return false;
+        for (int i = 0; i < 8; i++) {
+            if (!isAsciiDigit(userId.charAt(i))) return false;
+        }
+        char last = userId.charAt(8);
+        return isAsciiDigit(last) || isAsciiLetter(last);
     }
 
     public static boolean validUserId(String userId, Set<String> UsersIds) {
         boolean trueFormat = validUserIdFormat(userId);
         return trueFormat && (!UsersIds.contains(userId));
     }
-    
+
     // ========== Movie Validation ==========
     public static boolean validMovieTitle(String movieTitle) {
-        if (movieTitle == null || movieTitle.trim().isEmpty()) return false;
+        if (movieTitle == null || isBlank(movieTitle)) return false;
         if (movieTitle.charAt(0) == ' ' || movieTitle.charAt(movieTitle.length() - 1) == ' ') return false;
-        return movieTitle.matches("^([A-Z][a-zA-Z0-9]*)( [A-Z][a-zA-Z0-9]*)*$");
+        return isWords(movieTitle, true);
     }
 
     public static boolean validMovieIdLetters(String movieId, String title){
-        if (movieId == null || movieId.trim().isEmpty()) return false;
-        
+        if (movieId == null || isBlank(movieId)) return false;
+
         for (int i = 0; i < movieId.length(); i++) {
             char c = movieId.charAt(i);
             if (!Character.isLetterOrDigit(c)) {
@@ -37,39 +40,35 @@ public class Validators {
             }
         }
 
-        String expectedStart = title.replaceAll("[^A-Z]", "");
-
-        int firstDigitIndex = -1;
-        for (int i = 0; i < movieId.length(); i++) {
-            if (Character.isDigit(movieId.charAt(i))) {
-                firstDigitIndex = i;
-                break;
-            }
-        }
-        
+        int firstDigitIndex = firstDigitIndex(movieId);
         if (firstDigitIndex == -1) return false;
 
-        String lettersPart = movieId.substring(0, firstDigitIndex);
-
-        if (!lettersPart.equals(expectedStart)) return false;
-        return true;
+        // The letters before the first digit must be exactly the title's capitals, in order
+        int matched = 0;
+        for (int i = 0; i < title.length(); i++) {
+            char c = title.charAt(i);
+            if (c < 'A' || c > 'Z') continue;
+            if (matched == firstDigitIndex || movieId.charAt(matched) != c) return false;
+            matched++;
+        }
+        return matched == firstDigitIndex;
     }
+
     public static boolean validMovieIdUniqueNumbers(String movieId, String title){
-        if (movieId == null || movieId.trim().isEmpty()) return false;
+        return validMovieIdUniqueNumbers(movieId, title, MovieIdRegistry.DEFAULT_SUFFIX_DIGITS);
+    }
 
-        int firstDigitIndex = -1;
-        for (int i = 0; i < movieId.length(); i++) {
-            if (Character.isDigit(movieId.charAt(i))) {
-                firstDigitIndex = i;
-                break;
-            }
-        }
-        
+    // Wide-ID form: the numeric suffix must have exactly digits digits
+    public static boolean validMovieIdUniqueNumbers(String movieId, String title, int digits){
+        if (movieId == null || isBlank(movieId)) return false;
+
+        int firstDigitIndex = firstDigitIndex(movieId);
         if (firstDigitIndex == -1) return false;
-        
-        String digits = movieId.substring(firstDigitIndex);
-        if (!digits.matches("\\d{3}")) return false;
-        
+
+        if (movieId.length() - firstDigitIndex != digits) return false;
+        for (int i = firstDigitIndex; i < movieId.length(); i++) {
+            if (!isAsciiDigit(movieId.charAt(i))) return false;
+        }
         return true;
     }
 
@@ -80,16 +79,72 @@ public class Validators {
         if (!trueLetters || !trueNumbers) return false;
         if (MoviesIds.contains(movieId)) return false;
 
-        String currentDigits = movieId.substring(movieId.length() - 3);
+        int currentDigits = movieId.length() - 3;
 
         for (String existingId : MoviesIds) {
-            String existingDigits = existingId.substring(existingId.length() - 3);
-            if (existingDigits.equals(currentDigits)) {
+            if (existingId.regionMatches(existingId.length() - 3, movieId, currentDigits, 3)) {
                 return false;
             }
         }
 
         return true;
     }
-}
 
+    public static boolean validMovieId(String movieId, String title, MovieIdRegistry registry) {
+        if (!validMovieIdLetters(movieId, title) || !validMovieIdUniqueNumbers(movieId, title, registry.getSuffixDigits())) return false;
+        return registry.isAvailable(movieId);
+    }
+
+    // ========== Character Scanning ==========
+    // Hand-rolled equivalents of the patterns these checks used to pass to String.matches, so a
+    // check allocates nothing and compiles no Pattern
+
+    // Same as trim().isEmpty()
+    private static boolean isBlank(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') return false;
+        }
+        return true;
+    }
+
+    // Words separated by single spaces. Letters only, or ^([A-Z][a-zA-Z0-9]*)( [A-Z][a-zA-Z0-9]*)*$
+    // when capitalized is set; otherwise ^[A-Za-z]+( [A-Za-z]+)*$
+    private static boolean isWords(String value, boolean capitalized) {
+        boolean wordStart = true;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ' ') {
+                if (wordStart) return false;
+                wordStart = true;
+                continue;
+            }
+
+            boolean valid;
+            if (capitalized) {
+                valid = wordStart ? (c >= 'A' && c <= 'Z') : (isAsciiLetter(c) || isAsciiDigit(c));
+            } else {
+                valid = isAsciiLetter(c);
+            }
+            if (!valid) return false;
+            wordStart = false;
+        }
+        return !wordStart;
+    }
+
+    private static int firstDigitIndex(String movieId) {
+        for (int i = 0; i < movieId.length(); i++) {
+            if (Character.isDigit(movieId.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+}
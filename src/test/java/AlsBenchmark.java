@@ -0,0 +1,45 @@
+import java.util.Arrays;
+import java.util.Random;
+
+// Training time per ALS iteration on synthetic likes. Run with a large -Xmx, e.g. -Xmx2g for
+// the default million users.
+public class AlsBenchmark {
+
+    // Each user likes movies drawn around one of a few taste centers, so there is structure to learn
+    static int[][] generateLikes(int userCount, int likesPerUser, int movieCount, Random random) {
+        int tastes = Math.max(1, movieCount / 100);
+        int[][] likes = new int[userCount][];
+        for (int u = 0; u < userCount; u++) {
+            int center = random.nextInt(tastes) * (movieCount / tastes);
+            int[] liked = new int[likesPerUser];
+            for (int l = 0; l < likesPerUser; l++) {
+                int offset = (int) Math.abs(random.nextGaussian() * 50);
+                liked[l] = (center + offset) % movieCount;
+            }
+            Arrays.sort(liked);
+            likes[u] = Arrays.stream(liked).distinct().toArray();
+        }
+        return likes;
+    }
+
+    public static void main(String[] args) {
+        int userCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int likesPerUser = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int movieCount = args.length > 2 ? Integer.parseInt(args[2]) : 5000;
+        int iterations = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+
+        int[][] likes = generateLikes(userCount, likesPerUser, movieCount, new Random(42));
+        System.out.println("users=" + userCount + " likes/user=" + likesPerUser + " movies=" + movieCount
+            + " factors=" + AlsRecommender.DEFAULT_FACTORS + " cores=" + Runtime.getRuntime().availableProcessors());
+
+        long start = System.nanoTime();
+        AlsRecommender recommender = new AlsRecommender(movieCount, likes);
+        System.out.printf("setup      %10.2f ms%n", (System.nanoTime() - start) / 1e6);
+
+        for (int i = 1; i <= iterations; i++) {
+            start = System.nanoTime();
+            recommender.iterate();
+            System.out.printf("iteration %d %9.2f ms%n", i, (System.nanoTime() - start) / 1e6);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlsRecommenderTest {
+
+    private static final String FACTORS_FILE = "test_als.factors";
+
+    // Two taste groups: movies 0-4 and movies 5-9; movie 10 nobody liked
+    private final int[][] likes = {
+        {0, 1, 2, 3}, {0, 1, 2, 4}, {0, 1, 3, 4}, {0, 2, 3, 4}, {1, 2, 3, 4},
+        {5, 6, 7, 8}, {5, 6, 7, 9}, {5, 6, 8, 9}, {5, 7, 8, 9}, {6, 7, 8, 9}
+    };
+    private final String[] titles = {"A", "B", "C", "D", "E", "F", "G", "H", "I", "J", "K"};
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(Paths.get(FACTORS_FILE));
+    }
+
+    @Test
+    void learnsTasteGroupsTest() {
+        // Two factors for two groups; many more would overfit ten users
+        AlsRecommender recommender = new AlsRecommender(11, likes, 2, AlsRecommender.DEFAULT_REGULARIZATION, AlsRecommender.DEFAULT_ALPHA);
+        recommender.train(AlsRecommender.DEFAULT_ITERATIONS);
+
+        assertEquals(AlsRecommender.DEFAULT_ITERATIONS, recommender.getIterations());
+        assertTrue(recommender.score(0, 4) > recommender.score(0, 5));
+        assertTrue(recommender.score(5, 9) > recommender.score(5, 0));
+        assertEquals(0, recommender.score(0, 10), 1e-9);
+
+        int[] recommended = recommender.recommend(new int[] {0, 1}, 3, i -> titles[i]);
+        assertEquals(3, recommended.length);
+        for (int movie : recommended) {
+            assertTrue(movie >= 2 && movie <= 4, "recommended " + movie);
+        }
+        assertArrayEquals(new int[] {5, 6, 7, 8}, sorted(recommender.recommend(new int[] {9}, 4, i -> titles[i])));
+        assertArrayEquals(new int[0], recommender.recommend(new int[0], 3, i -> titles[i]));
+    }
+
+    @Test
+    void trainingIsReproducibleTest() {
+        AlsRecommender first = new AlsRecommender(11, likes);
+        AlsRecommender second = new AlsRecommender(11, likes);
+        first.train(3);
+        second.train(3);
+
+        for (int movie = 0; movie < 11; movie++) {
+            assertArrayEquals(first.getMovieFactors(movie), second.getMovieFactors(movie));
+        }
+    }
+
+    @Test
+    void writeAndReadFactorsTest() throws IOException {
+        AlsRecommender trained = new AlsRecommender(11, likes);
+        trained.train(4);
+        trained.write(FACTORS_FILE);
+
+        AlsRecommender loaded = new AlsRecommender(11, likes);
+        assertTrue(loaded.read(FACTORS_FILE));
+        assertEquals(4, loaded.getIterations());
+        for (int user = 0; user < likes.length; user++) {
+            assertArrayEquals(trained.getUserFactors(user), loaded.getUserFactors(user));
+        }
+        assertArrayEquals(trained.recommend(new int[] {0}, 5, i -> titles[i]), loaded.recommend(new int[] {0}, 5, i -> titles[i]));
+
+        int[][] changedLikes = likes.clone();
+        changedLikes[0] = new int[] {0, 1, 2};
+        AlsRecommender stale = new AlsRecommender(11, changedLikes);
+        assertFalse(stale.read(FACTORS_FILE));
+        assertEquals(0, stale.getIterations());
+        assertFalse(new AlsRecommender(11, likes, 8, AlsRecommender.DEFAULT_REGULARIZATION, AlsRecommender.DEFAULT_ALPHA).read(FACTORS_FILE));
+        assertFalse(new AlsRecommender(11, likes).read("missing.factors"));
+    }
+
+    @Test
+    void rejectsInvalidParametersTest() {
+        assertThrows(IllegalArgumentException.class, () -> new AlsRecommender(11, likes, 0, 0.1, 10));
+        assertThrows(IllegalArgumentException.class, () -> new AlsRecommender(11, likes, 4, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new AlsRecommender(11, likes, 4, 0.1, -1));
+    }
+
+    private static int[] sorted(int[] values) {
+        int[] copy = values.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+}
@@ -0,0 +1,106 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BitsetRecommenderTest {
+
+    private List<Movie> movies;
+    private List<User> users;
+
+    @BeforeEach
+    void setUp() {
+        movies = Arrays.asList(
+            new Movie("Inception", "I123", Arrays.asList("Sci-Fi", "Thriller")),
+            new Movie("The Matrix", "TM456", Arrays.asList("Action", "Sci-Fi")),
+            new Movie("Interstellar", "I789", Arrays.asList("Sci-Fi", "Drama")),
+            new Movie("The Dark Knight", "TDK234", Arrays.asList("Action", "Crime")),
+            new Movie("The Conjuring", "TC987", Arrays.asList("Horror", "Thriller")),
+            new Movie("Avengers", "A567", Arrays.asList("Adventure"))
+        );
+        users = Arrays.asList(
+            new User("Ahmed Hassan", "111111111", Arrays.asList("I123")),
+            new User("Sarah Mohamed", "22222222B", Arrays.asList("I789", "TDK234")),
+            new User("Omar Ali", "33333333C", Arrays.asList("A567")),
+            new User("Mona Samy", "15256987L", Arrays.asList("")),
+            new User("Farah Haitham", "987654321", Arrays.asList("TC987", "TM456")),
+            new User("Malak Alaa", "12356734E", Arrays.asList("I123", "TM456", "I789", "TDK234", "TC987", "A567"))
+        );
+    }
+
+    @Test
+    void recommendTest() {
+        BitsetRecommender recommender = new BitsetRecommender(movies);
+
+        assertEquals(new HashSet<>(Arrays.asList("Interstellar", "The Matrix", "The Conjuring")),
+            new HashSet<>(recommender.recommend(Arrays.asList("I123"))));
+        assertTrue(recommender.recommend(Arrays.asList("A567")).isEmpty());
+        assertTrue(recommender.recommend(Arrays.asList("")).isEmpty());
+    }
+
+    @Test
+    void movieIndexTest() {
+        BitsetRecommender recommender = new BitsetRecommender(movies);
+
+        assertEquals(0, recommender.getMovieIndex("I123"));
+        assertEquals(5, recommender.getMovieIndex("A567"));
+        assertEquals(-1, recommender.getMovieIndex("X000"));
+    }
+
+    @Test
+    void sameOutputAsGenreEngineTest() {
+        MovieRecommendationSystem system = new MovieRecommendationSystem();
+        system.setMovies(movies);
+        system.setUsers(users);
+
+        system.createRecommendedMovies();
+        List<List<String>> genreResults = users.stream().map(User::getRecommendedMoviesTitles).toList();
+
+        system.setRecommendationMode(RecommendationMode.BITSET);
+        system.createRecommendedMovies();
+
+        for (int i = 0; i < users.size(); i++) {
+            assertEquals(genreResults.get(i), users.get(i).getRecommendedMoviesTitles());
+        }
+    }
+
+    @Test
+    void largeCatalogAcrossWordsTest() {
+        Movie[] catalog = new Movie[130];
+        for (int i = 0; i < catalog.length; i++) {
+            catalog[i] = new Movie("Movie " + i, "M" + i, Arrays.asList(i % 2 == 0 ? "Even" : "Odd"));
+        }
+        BitsetRecommender recommender = new BitsetRecommender(Arrays.asList(catalog));
+
+        List<String> recommended = recommender.recommend(Arrays.asList("M129"));
+        assertEquals(64, recommended.size());
+        assertTrue(recommended.contains("Movie 1"));
+        assertTrue(recommended.contains("Movie 127"));
+        assertFalse(recommended.contains("Movie 129"));
+    }
+
+    @Test
+    void duplicateIdsAreExcludedTogetherTest() {
+        BitsetRecommender recommender = new BitsetRecommender(Arrays.asList(
+            new Movie("Heat", "H456", Arrays.asList("Action")),
+            new Movie("Alien", "A111", Arrays.asList("Action")),
+            new Movie("Heat Again", "H456", Arrays.asList("Action"))
+        ));
+
+        assertEquals(Arrays.asList("Alien"), recommender.recommend(Arrays.asList("H456")));
+    }
+
+    @Test
+    void offHeapCatalogIndexTest() {
+        GenreDictionary dictionary = GenreDictionary.index(movies);
+        try (MovieCatalog catalog = MovieCatalog.of(movies, dictionary)) {
+            BitsetRecommender recommender = new BitsetRecommender(new CatalogIndex(catalog.asList(), catalog, dictionary));
+
+            assertEquals(new HashSet<>(Arrays.asList("Interstellar", "The Matrix", "The Conjuring")),
+                new HashSet<>(recommender.recommend(Arrays.asList("I123"))));
+            assertEquals(5, recommender.getMovieIndex("A567"));
+        }
+    }
+}
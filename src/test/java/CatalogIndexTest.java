@@ -0,0 +1,75 @@
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogIndexTest {
+
+    private CatalogIndex index(List<Movie> movies) {
+        GenreDictionary genreDictionary = GenreDictionary.index(movies);
+        return new CatalogIndex(movies, null, genreDictionary);
+    }
+
+    private final List<Movie> movies = Arrays.asList(
+        new Movie("Inception", "I123", Arrays.asList("Sci-Fi", "Thriller")),
+        new Movie("The Matrix", "TM456", Arrays.asList("Action", "Sci-Fi", "Action")),
+        new Movie("Inception", "I123", Arrays.asList("Drama")),
+        new Movie("Heat", "H789", Arrays.asList("Action"))
+    );
+
+    @Test
+    void indexesIdsAndGenresTest() {
+        CatalogIndex index = index(movies);
+        int sciFi = index.getGenreDictionary().getId("Sci-Fi");
+        int action = index.getGenreDictionary().getId("Action");
+
+        assertEquals(4, index.size());
+        assertEquals(0, index.getMovieIndex("I123"));
+        assertEquals(-1, index.getMovieIndex("X999"));
+        assertTrue(index.containsId("H789"));
+        assertEquals(0, index.getFirstWithSameId(2));
+        assertEquals(3, index.getFirstWithSameId(3));
+        assertEquals(2, index.getNextWithSameId(0));
+        assertEquals(-1, index.getNextWithSameId(2));
+        assertEquals(-1, index.getNextWithSameId(3));
+        assertArrayEquals(new int[] {0, 1}, index.getGenrePosting(sciFi));
+        assertArrayEquals(new int[] {1, 3}, index.getGenrePosting(action));
+        assertEquals("The Matrix", index.getTitle(1));
+        assertEquals("TM456", index.getId(1));
+    }
+
+    @Test
+    void likedPositionsAreSortedAndDistinctTest() {
+        CatalogIndex index = index(movies);
+        User user = new User("Farah", "123456789", new ArrayList<>(Arrays.asList("H789", "I123", "X999", "H789", "")));
+
+        assertArrayEquals(new int[] {0, 3}, index.likedPositions(user));
+        int[][] all = index.likedPositions(Arrays.asList(user, new User("Omar", "33333333C", new ArrayList<>())));
+        assertArrayEquals(new int[] {0, 3}, all[0]);
+        assertArrayEquals(new int[0], all[1]);
+    }
+
+    @Test
+    void distinctTitlesKeepsFirstOfEachTitleTest() {
+        CatalogIndex index = index(movies);
+
+        assertArrayEquals(new int[] {2, 1, 3}, index.distinctTitles(new int[] {2, 1, 0, 3}));
+        assertThrows(UnsupportedOperationException.class, () -> index.getMovies().add(movies.get(0)));
+    }
+
+    @Test
+    void appendMovieExtendsLookupsTest() {
+        List<Movie> catalog = new ArrayList<>(movies);
+        CatalogIndex index = index(catalog);
+        Movie copy = new Movie("Inception", "I123", Arrays.asList("Western"));
+        copy.setGenreIds(index.getGenreDictionary().encode(copy.getMovieGenres()));
+        catalog.add(copy);
+        index.appendMovie();
+
+        assertEquals(1, index.getVersion());
+        assertEquals(0, index.getFirstWithSameId(4));
+        assertEquals(4, index.getNextWithSameId(2));
+        assertArrayEquals(new int[] {4}, index.getGenrePosting(index.getGenreDictionary().getId("Western")));
+    }
+}
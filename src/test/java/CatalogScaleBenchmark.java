@@ -0,0 +1,77 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+// Loads, validates and recommends over generated wide-ID catalogs of growing size; time per
+// movie should stay flat if every phase is linear in the catalog size
+public class CatalogScaleBenchmark {
+    private static final String[] GENRES = {"Action", "Comedy", "Drama", "Horror", "Romance", "Sci-Fi", "Thriller", "War"};
+
+    static void generateMoviesFile(Path path, int movieCount, int digits, Random random) throws IOException {
+        String format = "%0" + digits + "d";
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            for (int i = 0; i < movieCount; i++) {
+                writer.write("Movie M" + i + ", MM" + String.format(format, i));
+                writer.newLine();
+                writer.write(GENRES[random.nextInt(GENRES.length)] + ", " + GENRES[random.nextInt(GENRES.length)]);
+                writer.newLine();
+            }
+        }
+    }
+
+    static void generateUsersFile(Path path, int userCount, int movieCount, int digits, Random random) throws IOException {
+        String format = "%0" + digits + "d";
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            for (int i = 0; i < userCount; i++) {
+                writer.write("Generated User, " + String.format("%09d", i));
+                writer.newLine();
+                writer.write("MM" + String.format(format, random.nextInt(movieCount)));
+                writer.newLine();
+            }
+        }
+    }
+
+    static void report(String label, long nanos, int movieCount) {
+        System.out.printf("  %-10s %9.1f ms  %7.1f ns/movie%n", label, nanos / 1e6, nanos / (double) movieCount);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int digits = args.length > 0 ? Integer.parseInt(args[0]) : 7;
+        int userCount = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int[] sizes = {250000, 500000, 1000000, 2000000};
+
+        Path moviesFile = Paths.get("bench_movies.txt");
+        Path usersFile = Paths.get("bench_users.txt");
+        try {
+            for (int movieCount : sizes) {
+                Random random = new Random(42);
+                generateMoviesFile(moviesFile, movieCount, digits, random);
+                generateUsersFile(usersFile, userCount, movieCount, digits, random);
+
+                MovieRecommendationSystem system = new MovieRecommendationSystem();
+                system.setMovieIdDigits(digits);
+                System.out.println("movies=" + movieCount + " digits=" + digits + " users=" + userCount);
+
+                long start = System.nanoTime();
+                system.loadData(moviesFile.toString(), usersFile.toString());
+                report("load", System.nanoTime() - start, movieCount);
+
+                start = System.nanoTime();
+                system.validateData();
+                report("validate", System.nanoTime() - start, movieCount);
+
+                start = System.nanoTime();
+                system.createRecommendedMovies();
+                report("recommend", System.nanoTime() - start, movieCount);
+
+                System.out.println("  errors=" + system.getErrors().size());
+            }
+        } finally {
+            Files.deleteIfExists(moviesFile);
+            Files.deleteIfExists(usersFile);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSnapshotTest {
+
+    private static final String SNAPSHOT_FILE = "test_catalog.snapshot";
+    private final String movieTestTXT = "src/test/files/testMovies.txt";
+    private final String userTestTXT = "src/test/files/testUsers.txt";
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(Paths.get(SNAPSHOT_FILE));
+    }
+
+    @Test
+    void writeAndReadSnapshotTest() throws IOException {
+        List<Movie> movies = Arrays.asList(
+            new Movie("Inception", "I123", Arrays.asList("Sci-Fi", "Thriller")),
+            new Movie("The Matrix", "TM456", Arrays.asList("Action", "Sci-Fi"))
+        );
+        List<User> users = Arrays.asList(
+            new User("Ahmed Hassan", "111111111", Arrays.asList("I123", "TM456")),
+            new User("Mona Samy", "15256987L", Arrays.asList("")),
+            new User("Omar Ali", "33333333C", Arrays.asList("X999"))
+        );
+
+        new CatalogSnapshot(movies, users).write(SNAPSHOT_FILE, 42L);
+        CatalogSnapshot snapshot = CatalogSnapshot.read(SNAPSHOT_FILE, 42L);
+
+        assertEquals(2, snapshot.getMovies().size());
+        assertEquals("The Matrix", snapshot.getMovies().get(1).getMovieTitle());
+        assertEquals("TM456", snapshot.getMovies().get(1).getMovieId());
+        assertEquals(Arrays.asList("Action", "Sci-Fi"), snapshot.getMovies().get(1).getMovieGenres());
+        assertSame(snapshot.getMovies().get(0).getMovieGenres().get(0), snapshot.getMovies().get(1).getMovieGenres().get(1));
+
+        assertEquals(3, snapshot.getUsers().size());
+        assertEquals("Ahmed Hassan", snapshot.getUsers().get(0).getUserName());
+        assertEquals(Arrays.asList("I123", "TM456"), snapshot.getUsers().get(0).getLikedMoviesIds());
+        assertEquals(Arrays.asList(""), snapshot.getUsers().get(1).getLikedMoviesIds());
+        assertEquals(Arrays.asList("X999"), snapshot.getUsers().get(2).getLikedMoviesIds());
+    }
+
+    @Test
+    void readStaleSnapshotTest() throws IOException {
+        new CatalogSnapshot(Arrays.asList(), Arrays.asList()).write(SNAPSHOT_FILE, 42L);
+
+        assertNull(CatalogSnapshot.read(SNAPSHOT_FILE, 43L));
+        assertNull(CatalogSnapshot.read(SNAPSHOT_FILE, 42L, 5));
+        assertNull(CatalogSnapshot.read("missing.snapshot", 42L));
+    }
+
+    @Test
+    void readCorruptedSnapshotTest() throws IOException {
+        Files.write(Paths.get(SNAPSHOT_FILE), new byte[] {0x4D, 0x52, 0x53, 0x53, 0, 0});
+
+        assertNull(CatalogSnapshot.read(SNAPSHOT_FILE, 42L));
+    }
+
+    @Test
+    void checksumTracksContentTest() throws IOException {
+        Files.write(Paths.get(movieTestTXT), Arrays.asList("Inception, I123", "Sci-Fi"));
+        Files.write(Paths.get(userTestTXT), Arrays.asList("Ahmed Hassan, 111111111", "I123"));
+        long checksum = CatalogSnapshot.checksum(movieTestTXT, userTestTXT);
+
+        assertEquals(checksum, CatalogSnapshot.checksum(movieTestTXT, userTestTXT));
+
+        Files.write(Paths.get(userTestTXT), Arrays.asList("Ahmed Hassan, 111111112", "I123"));
+        assertNotEquals(checksum, CatalogSnapshot.checksum(movieTestTXT, userTestTXT));
+    }
+
+    @Test
+    void loadValidatedDataUsesSnapshotTest() throws IOException {
+        Files.write(Paths.get(movieTestTXT), Arrays.asList(
+            "Inception, I123",
+            "Sci-Fi, Thriller",
+            "The Matrix, TM456",
+            "Action, Sci-Fi"
+        ));
+        Files.write(Paths.get(userTestTXT), Arrays.asList("Ahmed Hassan, 111111111", "I123"));
+
+        MovieRecommendationSystem system = new MovieRecommendationSystem();
+        assertFalse(system.loadSnapshot(SNAPSHOT_FILE, movieTestTXT, userTestTXT));
+        system.loadValidatedData(movieTestTXT, userTestTXT, SNAPSHOT_FILE);
+        assertTrue(Files.exists(Paths.get(SNAPSHOT_FILE)));
+
+        MovieRecommendationSystem cached = new MovieRecommendationSystem();
+        assertTrue(cached.loadSnapshot(SNAPSHOT_FILE, movieTestTXT, userTestTXT));
+        cached.createRecommendedMovies();
+        assertEquals(Arrays.asList("The Matrix"), cached.getUsers().get(0).getRecommendedMoviesTitles());
+
+        Files.write(Paths.get(userTestTXT), Arrays.asList("Ahmed Hassan, 111111111", "TM456"));
+        assertFalse(new MovieRecommendationSystem().loadSnapshot(SNAPSHOT_FILE, movieTestTXT, userTestTXT));
+    }
+
+    @Test
+    void snapshotTracksMovieIdDigitsTest() throws IOException {
+        Files.write(Paths.get(movieTestTXT), Arrays.asList("Inception, I123", "Sci-Fi"));
+        Files.write(Paths.get(userTestTXT), Arrays.asList("Ahmed Hassan, 111111111", "I123"));
+        new MovieRecommendationSystem().loadValidatedData(movieTestTXT, userTestTXT, SNAPSHOT_FILE);
+
+        MovieRecommendationSystem wide = new MovieRecommendationSystem();
+        wide.setMovieIdDigits(5);
+        assertFalse(wide.loadSnapshot(SNAPSHOT_FILE, movieTestTXT, userTestTXT));
+        wide.loadValidatedData(movieTestTXT, userTestTXT, SNAPSHOT_FILE);
+
+        assertEquals("ERROR: Movie Id numbers I123 are wrong", wide.getErrors().get(0));
+        assertTrue(new MovieRecommendationSystem().loadSnapshot(SNAPSHOT_FILE, movieTestTXT, userTestTXT));
+    }
+
+    @Test
+    void invalidDataIsNotSnapshottedTest() throws IOException {
+        Files.write(Paths.get(movieTestTXT), Arrays.asList("inception, I123", "Sci-Fi"));
+        Files.write(Paths.get(userTestTXT), Arrays.asList("Ahmed Hassan, 111111111", "I123"));
+
+        MovieRecommendationSystem system = new MovieRecommendationSystem();
+        system.loadValidatedData(movieTestTXT, userTestTXT, SNAPSHOT_FILE);
+
+        assertEquals("ERROR: Movie Title inception is wrong", system.getErrors().get(0));
+        assertFalse(Files.exists(Paths.get(SNAPSHOT_FILE)));
+    }
+}
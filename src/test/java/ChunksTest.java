@@ -0,0 +1,34 @@
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunksTest {
+
+    @Test
+    void chunksCoverEveryRowOnceTest() {
+        for (int rowCount : new int[] {0, 1, 3, 1000}) {
+            AtomicIntegerArray covered = new AtomicIntegerArray(rowCount);
+            AtomicIntegerArray chunks = new AtomicIntegerArray(Chunks.count(rowCount));
+            Chunks.forEach(rowCount, (chunk, start, end) -> {
+                chunks.incrementAndGet(chunk);
+                for (int row = start; row < end; row++) {
+                    covered.incrementAndGet(row);
+                }
+            });
+
+            for (int row = 0; row < rowCount; row++) {
+                assertEquals(1, covered.get(row));
+            }
+            for (int chunk = 0; chunk < chunks.length(); chunk++) {
+                assertEquals(1, chunks.get(chunk));
+            }
+        }
+    }
+
+    @Test
+    void neverMoreChunksThanRowsTest() {
+        assertEquals(1, Chunks.count(0));
+        assertEquals(1, Chunks.count(1));
+        assertTrue(Chunks.count(1000) <= 1000);
+    }
+}
@@ -0,0 +1,46 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoLikeRecommenderTest {
+
+    private final String[] titles = {"Alien", "Brazil", "Clue", "Dune"};
+    private final int[][] likes = {
+        {0, 1},
+        {0, 1, 2},
+        {0, 3},
+        {2}
+    };
+
+    @Test
+    void keepsStrongestNeighborsTest() {
+        CoLikeRecommender recommender = new CoLikeRecommender(4, likes, 2);
+
+        assertArrayEquals(new int[] {1, 2}, recommender.getNeighborMovies(0));
+        assertArrayEquals(new int[] {2, 1}, recommender.getNeighborWeights(0));
+        assertArrayEquals(new int[] {0, 2}, recommender.getNeighborMovies(1));
+        assertArrayEquals(new int[] {0}, recommender.getNeighborMovies(3));
+        assertArrayEquals(new int[] {1}, recommender.getNeighborWeights(3));
+    }
+
+    @Test
+    void scoresBySummedCoLikesTest() {
+        CoLikeRecommender recommender = new CoLikeRecommender(4, likes, 2);
+
+        assertArrayEquals(new int[] {1, 2}, recommender.recommend(new int[] {0}, 10, i -> titles[i]));
+        assertArrayEquals(new int[] {2}, recommender.recommend(new int[] {0, 1}, 10, i -> titles[i]));
+        assertArrayEquals(new int[] {0, 1}, recommender.recommend(new int[] {2}, 10, i -> titles[i]));
+        assertArrayEquals(new int[] {1}, recommender.recommend(new int[] {0}, 1, i -> titles[i]));
+        assertArrayEquals(new int[0], recommender.recommend(new int[0], 10, i -> titles[i]));
+    }
+
+    @Test
+    void handlesMoviesNobodyLikedTest() {
+        CoLikeRecommender recommender = new CoLikeRecommender(4, new int[][] {{1}, {}}, 5);
+
+        for (int movie = 0; movie < 4; movie++) {
+            assertEquals(0, recommender.getNeighborMovies(movie).length);
+        }
+        assertArrayEquals(new int[0], recommender.recommend(new int[] {1}, 10, i -> titles[i]));
+        assertThrows(IllegalArgumentException.class, () -> new CoLikeRecommender(4, likes, 0));
+    }
+}
@@ -0,0 +1,118 @@
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GenreDictionaryTest {
+
+    @Test
+    void addAndLookupTest() {
+        GenreDictionary dictionary = new GenreDictionary();
+
+        assertEquals(0, dictionary.add("Action"));
+        assertEquals(1, dictionary.add("Drama"));
+        assertEquals(0, dictionary.add("Action"));
+        assertEquals(2, dictionary.size());
+        assertEquals(1, dictionary.getId("Drama"));
+        assertEquals(-1, dictionary.getId("Horror"));
+        assertEquals("Drama", dictionary.getName(1));
+    }
+
+    @Test
+    void canonicalSharesOneInstanceTest() {
+        GenreDictionary dictionary = new GenreDictionary();
+        String first = dictionary.canonical(new String("Sci-Fi"));
+        String second = dictionary.canonical(new String("Sci-Fi"));
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void indexAssignsMovieGenreIdsTest() {
+        List<Movie> movies = Arrays.asList(
+            new Movie("Inception", "I123", Arrays.asList("Sci-Fi", "Thriller")),
+            new Movie("The Matrix", "TM456", Arrays.asList("Action", "Sci-Fi"))
+        );
+        GenreDictionary dictionary = GenreDictionary.index(movies);
+
+        assertEquals(3, dictionary.size());
+        assertArrayEquals(new int[] {0, 1}, movies.get(0).getGenreIds());
+        assertArrayEquals(new int[] {2, 0}, movies.get(1).getGenreIds());
+    }
+
+    @Test
+    void sortInHashSetOrderMatchesHashSetTest() {
+        Random random = new Random(14);
+        GenreDictionary dictionary = new GenreDictionary();
+        for (int i = 0; i < 300; i++) {
+            dictionary.add("Genre" + random.nextInt(100000));
+        }
+
+        for (int round = 0; round < 500; round++) {
+            int count = 1 + random.nextInt(round < 400 ? 20 : 200);
+            assertMatchesHashSet(dictionary, randomDistinct(random, dictionary.size(), count));
+        }
+    }
+
+    @Test
+    void sortInHashSetOrderWithCollidingNamesTest() {
+        // "Aa" and "BB" share a hash code, so every combination lands in the same bucket and
+        // the set resizes early and finally treeifies that bucket
+        GenreDictionary dictionary = new GenreDictionary();
+        List<Integer> ids = new ArrayList<>();
+        for (int mask = 0; mask < 32; mask++) {
+            StringBuilder name = new StringBuilder();
+            for (int bit = 0; bit < 5; bit++) {
+                name.append((mask & (1 << bit)) == 0 ? "Aa" : "BB");
+            }
+            ids.add(dictionary.add(name.toString()));
+            dictionary.add("Other" + mask);
+        }
+
+        Random random = new Random(7);
+        for (int count = 1; count <= 32; count++) {
+            List<Integer> shuffled = new ArrayList<>(ids);
+            Collections.shuffle(shuffled, random);
+            int[] genreIds = new int[count + 3];
+            for (int i = 0; i < count; i++) {
+                genreIds[i] = shuffled.get(i);
+            }
+            genreIds[count] = dictionary.getId("Other1");
+            genreIds[count + 1] = dictionary.getId("Other2");
+            genreIds[count + 2] = dictionary.getId("Other3");
+            assertMatchesHashSet(dictionary, genreIds);
+        }
+    }
+
+    private static int[] randomDistinct(Random random, int bound, int count) {
+        Set<Integer> picked = new HashSet<>();
+        int[] genreIds = new int[count];
+        int i = 0;
+        while (i < count) {
+            int id = random.nextInt(bound);
+            if (picked.add(id)) genreIds[i++] = id;
+        }
+        return genreIds;
+    }
+
+    private static void assertMatchesHashSet(GenreDictionary dictionary, int[] genreIds) {
+        Set<String> expected = new HashSet<>();
+        for (int id : genreIds) {
+            expected.add(dictionary.getName(id));
+        }
+
+        int[] sorted = genreIds.clone();
+        dictionary.sortInHashSetOrder(sorted, sorted.length);
+
+        List<String> actual = new ArrayList<>();
+        for (int id : sorted) {
+            actual.add(dictionary.getName(id));
+        }
+        assertEquals(new ArrayList<>(expected), actual);
+    }
+}
@@ -0,0 +1,30 @@
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GenreUserIndexTest {
+
+    @Test
+    void mapsGenresToUsersTest() {
+        List<Movie> movies = Arrays.asList(
+            new Movie("Inception", "I123", Arrays.asList("Sci-Fi", "Thriller")),
+            new Movie("Heat", "H456", Arrays.asList("Crime")),
+            new Movie("The Matrix", "TM789", Arrays.asList("Action", "Sci-Fi"))
+        );
+        GenreDictionary genreDictionary = GenreDictionary.index(movies);
+        CatalogIndex index = new CatalogIndex(movies, null, genreDictionary);
+        List<User> users = Arrays.asList(
+            new User("Farah", "123456789", Arrays.asList("I123", "TM789")),
+            new User("Omar", "33333333C", Arrays.asList("H456", "X999")),
+            new User("Mona", "11111111A", Arrays.asList())
+        );
+
+        GenreUserIndex genreUsers = new GenreUserIndex(index, users);
+
+        assertArrayEquals(new int[] {0}, genreUsers.getUsers(genreDictionary.getId("Sci-Fi")));
+        assertArrayEquals(new int[] {1}, genreUsers.getUsers(genreDictionary.getId("Crime")));
+        assertArrayEquals(new int[] {0, 1}, genreUsers.getUsers(new int[] {genreDictionary.getId("Crime"), genreDictionary.getId("Action")}));
+        assertArrayEquals(new int[0], genreUsers.getUsers(genreDictionary.size() + 3));
+    }
+}
@@ -0,0 +1,44 @@
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LikeMatrixTest {
+
+    @Test
+    void userRowsAndTransposeTest() {
+        LikeMatrix likes = new LikeMatrix(4, new int[][] {{0, 2}, {}, {1, 2, 3}});
+
+        assertEquals(3, likes.getUserCount());
+        assertEquals(4, likes.getMovieCount());
+        assertEquals(5, likes.getLikeCount());
+        assertArrayEquals(new int[] {0, 2, 2, 5}, likes.getUserOffsets());
+        assertArrayEquals(new int[] {0, 2, 1, 2, 3}, likes.getUserMovies());
+        assertArrayEquals(new int[] {0, 1, 2, 4, 5}, likes.getLikerOffsets());
+        assertArrayEquals(new int[] {0, 2, 0, 2, 2}, likes.getLikers());
+        assertSame(likes.getLikers(), likes.getLikers());
+    }
+
+    @Test
+    void movieCountDefaultsToLargestPositionTest() {
+        assertEquals(8, new LikeMatrix(new int[][] {{1, 7}, {3}}).getMovieCount());
+        assertEquals(0, new LikeMatrix(new int[][] {{}}).getMovieCount());
+    }
+
+    @Test
+    void fromCatalogIndexTest() {
+        List<Movie> movies = Arrays.asList(
+            new Movie("Inception", "I123", Arrays.asList("Sci-Fi")),
+            new Movie("The Matrix", "TM456", Arrays.asList("Action"))
+        );
+        CatalogIndex index = new CatalogIndex(movies, null, GenreDictionary.index(movies));
+        LikeMatrix likes = LikeMatrix.of(index, Arrays.asList(
+            new User("Farah Haitham", "987654321", Arrays.asList("TM456", "I123", "X999")),
+            new User("Omar Ali", "33333333C", Arrays.asList("TM456"))
+        ));
+
+        assertEquals(2, likes.getMovieCount());
+        assertArrayEquals(new int[] {0, 1, 1}, likes.getUserMovies());
+        assertArrayEquals(new int[] {0, 0, 1}, likes.getLikers());
+    }
+}
@@ -0,0 +1,54 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.function.Consumer;
+
+public class LoadBenchmark {
+
+    static void generateUsersFile(Path path, int userCount, int likesPerUser, int movieCount, Random random) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            for (int i = 0; i < userCount; i++) {
+                writer.write("Generated User, " + String.format("%09d", i));
+                writer.newLine();
+                for (int j = 0; j < likesPerUser; j++) {
+                    if (j > 0) writer.write(", ");
+                    writer.write("M" + random.nextInt(movieCount));
+                }
+                writer.newLine();
+            }
+        }
+    }
+
+    static void time(String label, String usersTXT, Consumer<MovieRecommendationSystem> loader) {
+        loader.accept(new MovieRecommendationSystem());
+
+        long start = System.nanoTime();
+        MovieRecommendationSystem system = new MovieRecommendationSystem();
+        loader.accept(system);
+        long nanos = System.nanoTime() - start;
+
+        System.out.printf("%-10s %10.2f ms  users=%d errors=%d%n", label, nanos / 1e6, system.getUsers().size(), system.getErrors().size());
+    }
+
+    public static void main(String[] args) throws IOException {
+        int userCount = args.length > 0 ? Integer.parseInt(args[0]) : 500000;
+        int likesPerUser = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        Path usersFile = Paths.get("bench_users.txt");
+        generateUsersFile(usersFile, userCount, likesPerUser, 5000, new Random(42));
+        String usersTXT = usersFile.toString();
+
+        System.out.println("users=" + userCount + " likes/user=" + likesPerUser + " bytes=" + Files.size(usersFile)
+            + " cores=" + Runtime.getRuntime().availableProcessors());
+        try {
+            time("text", usersTXT, system -> system.loadUsers(usersTXT));
+            time("mapped", usersTXT, system -> system.loadUsersMapped(usersTXT));
+            time("parallel", usersTXT, system -> system.loadUsersParallel(usersTXT));
+        } finally {
+            Files.deleteIfExists(usersFile);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedRecordReaderTest {
+
+    private static final String MAPPED_TEST_FILE = "test_mapped.txt";
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(Paths.get(MAPPED_TEST_FILE));
+    }
+
+    private List<String> readAll(String content, int windowSize) throws IOException {
+        Path path = Paths.get(MAPPED_TEST_FILE);
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+
+        List<String> records = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+             MappedRecordReader reader = new MappedRecordReader(channel, 0, channel.size(), 1, windowSize)) {
+            while (reader.next()) {
+                records.add(reader.getLineNumber() + ":"
+                    + reader.decode(reader.getHeaderStart(), reader.getHeaderEnd()) + "|"
+                    + reader.decode(reader.getDetailStart(), reader.getDetailEnd()));
+            }
+        }
+        return records;
+    }
+
+    @Test
+    void readRecordsTest() throws IOException {
+        assertEquals(Arrays.asList("1:Inception, I123|Sci-Fi, Thriller", "3:The Matrix, TM456|Action"),
+            readAll("Inception, I123\nSci-Fi, Thriller\nThe Matrix, TM456\nAction\n", MappedRecordReader.DEFAULT_WINDOW_SIZE));
+    }
+
+    @Test
+    void readRecordsWithMixedLineEndingsTest() throws IOException {
+        assertEquals(Arrays.asList("1:A, 1|B", "3:C, 2|", "5:D, 3|E"),
+            readAll("A, 1\r\nB\rC, 2\n\r\nD, 3\nE", MappedRecordReader.DEFAULT_WINDOW_SIZE));
+    }
+
+    @Test
+    void readRecordsDropsIncompleteRecordTest() throws IOException {
+        assertEquals(Arrays.asList("1:A, 1|B"), readAll("A, 1\nB\nC, 2\n", MappedRecordReader.DEFAULT_WINDOW_SIZE));
+        assertTrue(readAll("", MappedRecordReader.DEFAULT_WINDOW_SIZE).isEmpty());
+    }
+
+    @Test
+    void readRecordsAcrossSmallWindowsTest() throws IOException {
+        StringBuilder content = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            content.append("Movie ").append(i).append(", M").append(i).append("\r\n").append("Drama\r\n");
+            expected.add((2 * i + 1) + ":Movie " + i + ", M" + i + "|Drama");
+        }
+
+        assertEquals(expected, readAll(content.toString(), 24));
+    }
+
+    @Test
+    void recordLargerThanWindowTest() {
+        assertThrows(IOException.class, () -> readAll("A very long title line, AVLTL123\nDrama\n", 16));
+    }
+
+    @Test
+    void splitMatchesStringSplitTest() throws IOException {
+        String[] lines = {"", ",", ",,", "a", "a,", "a,,", ",a", "a,b", " a , b ,", "a,,b", " , ", "a, ,"};
+        Files.write(Paths.get(MAPPED_TEST_FILE), String.join("\n", lines).concat("\n\n").getBytes(StandardCharsets.UTF_8));
+
+        try (MappedRecordReader reader = MappedRecordReader.open(MAPPED_TEST_FILE)) {
+            for (int i = 0; i < lines.length; i += 2) {
+                assertTrue(reader.next());
+                assertSplitMatches(reader, lines[i], reader.getHeaderStart(), reader.getHeaderEnd());
+                assertSplitMatches(reader, lines[i + 1], reader.getDetailStart(), reader.getDetailEnd());
+            }
+        }
+    }
+
+    private void assertSplitMatches(MappedRecordReader reader, String line, int start, int end) {
+        String[] expected = line.split(",");
+        int[] fields = reader.split(start, end);
+
+        assertEquals(expected.length, fields[0], "field count of '" + line + "'");
+        for (int f = 0; f < expected.length; f++) {
+            assertEquals(expected[f], reader.decode(fields[2 * f + 1], fields[2 * f + 2]));
+        }
+        assertEquals(line.trim().split("\\s+").length > 1, reader.hasInnerWhitespace(start, end));
+        assertEquals(line.trim().isEmpty(), reader.isBlank(start, end));
+    }
+
+    @Test
+    void chunksStartOnRecordBoundariesTest() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 25; i++) {
+            content.append("Header ").append(i).append('\n').append(i % 4 == 0 ? "" : "Detail").append('\n');
+        }
+        Path path = Paths.get(MAPPED_TEST_FILE);
+        Files.write(path, content.toString().getBytes(StandardCharsets.UTF_8));
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            List<MappedRecordReader.Chunk> chunks = MappedRecordReader.chunks(channel, 8, MappedRecordReader.DEFAULT_WINDOW_SIZE);
+
+            assertEquals(0, chunks.get(0).getStart());
+            assertEquals(channel.size(), chunks.get(chunks.size() - 1).getEnd());
+
+            List<String> headers = new ArrayList<>();
+            for (int k = 0; k < chunks.size(); k++) {
+                MappedRecordReader.Chunk chunk = chunks.get(k);
+                if (k > 0) assertEquals(chunks.get(k - 1).getEnd(), chunk.getStart());
+                assertEquals(1, chunk.getFirstLineNumber() % 2);
+
+                try (MappedRecordReader reader = new MappedRecordReader(channel, chunk.getStart(), chunk.getEnd(),
+                        chunk.getFirstLineNumber(), MappedRecordReader.DEFAULT_WINDOW_SIZE)) {
+                    while (reader.next()) {
+                        headers.add(reader.getLineNumber() + ":" + reader.decode(reader.getHeaderStart(), reader.getHeaderEnd()));
+                    }
+                }
+            }
+
+            assertEquals(25, headers.size());
+            for (int i = 0; i < 25; i++) {
+                assertEquals((2 * i + 1) + ":Header " + i, headers.get(i));
+            }
+        }
+    }
+}
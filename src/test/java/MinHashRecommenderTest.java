@@ -0,0 +1,70 @@
+import org.junit.jupiter.api.Test;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MinHashRecommenderTest {
+
+    private final String[] titles = {"Alien", "Brazil", "Clue", "Dune", "Heat", "Ran", "Big", "Up"};
+    private final int[][] likes = {
+        {0, 1, 2, 3},
+        {0, 1, 2, 3, 4},
+        {5, 6, 7},
+        {0, 1, 2, 3, 5},
+        {0, 1, 2, 4, 6}
+    };
+
+    @Test
+    void findsSimilarUsersTest() {
+        MinHashRecommender recommender = new MinHashRecommender(likes);
+
+        // Users 1 and 3 are at 0.8, user 4 at 0.5; user 0 likes the same set and user 2 nothing shared
+        assertArrayEquals(new int[] {1, 3, 4}, recommender.findNeighbors(new int[] {0, 1, 2, 3}));
+        assertArrayEquals(new int[] {1}, new MinHashRecommender(likes, 20, 2, 1).findNeighbors(new int[] {0, 1, 2, 3}));
+        assertArrayEquals(new int[0], recommender.findNeighbors(new int[0]));
+        assertEquals(5, recommender.getUserCount());
+    }
+
+    @Test
+    void recommendsMoviesMostNeighborsLikedTest() {
+        MinHashRecommender recommender = new MinHashRecommender(likes);
+
+        // Heat is liked by two neighbors; Big and Ran by one each, ordered by title
+        assertArrayEquals(new int[] {4, 6, 5}, recommender.recommend(new int[] {0, 1, 2, 3}, 10, i -> titles[i]));
+        assertArrayEquals(new int[] {4}, recommender.recommend(new int[] {0, 1, 2, 3}, 1, i -> titles[i]));
+        assertArrayEquals(new int[0], recommender.recommend(new int[0], 10, i -> titles[i]));
+    }
+
+    @Test
+    void findsMostHighlySimilarUsersTest() {
+        // Users come in groups of ten sharing a core of eight movies, each adding two of their own
+        Random random = new Random(21);
+        int[][] users = new int[2000][];
+        for (int u = 0; u < users.length; u++) {
+            int core = (u / 10) * 8;
+            int[] liked = new int[10];
+            for (int m = 0; m < 8; m++) {
+                liked[m] = core + m;
+            }
+            liked[8] = 100_000 + random.nextInt(50_000);
+            liked[9] = 150_000 + random.nextInt(50_000);
+            users[u] = liked;
+        }
+        MinHashRecommender recommender = new MinHashRecommender(users);
+
+        int found = 0;
+        for (int u = 0; u < users.length; u++) {
+            for (int neighbor : recommender.findNeighbors(users[u])) {
+                if (neighbor / 10 == u / 10) found++;
+            }
+        }
+        // Group mates are at Jaccard 2/3; nearly all of the nine per user should be found
+        assertTrue(found > users.length * 9 * 0.95, "found " + found);
+    }
+
+    @Test
+    void rejectsInvalidParametersTest() {
+        assertThrows(IllegalArgumentException.class, () -> new MinHashRecommender(likes, 0, 2, 5));
+        assertThrows(IllegalArgumentException.class, () -> new MinHashRecommender(likes, 20, 0, 5));
+        assertThrows(IllegalArgumentException.class, () -> new MinHashRecommender(likes, 20, 2, 0));
+    }
+}
@@ -0,0 +1,55 @@
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MovieCatalogTest {
+
+    private final List<Movie> movies = Arrays.asList(
+        new Movie("Inception", "I123", Arrays.asList("Sci-Fi", "Thriller")),
+        new Movie("Amélie", "A456", Arrays.asList("Comedy", "Romance")),
+        new Movie("The Matrix", "TM789", Arrays.asList("Action", "Sci-Fi"))
+    );
+
+    @Test
+    void columnsRoundTripTest() {
+        GenreDictionary dictionary = new GenreDictionary();
+        try (MovieCatalog catalog = MovieCatalog.of(movies, dictionary)) {
+            assertEquals(3, catalog.size());
+            assertSame(dictionary, catalog.getGenreDictionary());
+            assertEquals("Amélie", catalog.getTitle(1));
+            assertEquals("TM789", catalog.getId(2));
+            assertArrayEquals(new int[] {dictionary.getId("Action"), dictionary.getId("Sci-Fi")}, catalog.getGenreIds(2));
+        }
+    }
+
+    @Test
+    void movieViewsTest() {
+        try (MovieCatalog catalog = MovieCatalog.of(movies, new GenreDictionary())) {
+            List<Movie> list = catalog.asList();
+            Movie matrix = list.get(2);
+
+            assertEquals(3, list.size());
+            assertEquals("The Matrix", matrix.getMovieTitle());
+            assertEquals(Arrays.asList("Action", "Sci-Fi"), matrix.getMovieGenres());
+            assertArrayEquals(catalog.getGenreIds(2), matrix.getGenreIds());
+            assertNotSame(matrix, list.get(2));
+        }
+    }
+
+    @Test
+    void emptyCatalogTest() {
+        try (MovieCatalog catalog = MovieCatalog.of(Arrays.asList(), new GenreDictionary())) {
+            assertEquals(0, catalog.size());
+            assertTrue(catalog.asList().isEmpty());
+        }
+    }
+
+    @Test
+    void closedCatalogTest() {
+        MovieCatalog catalog = MovieCatalog.of(movies, new GenreDictionary());
+        catalog.close();
+
+        assertThrows(IllegalStateException.class, () -> catalog.getTitle(0));
+    }
+}
@@ -0,0 +1,142 @@
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MovieIdRegistryTest {
+
+    @Test
+    void addAndLookupTest() {
+        MovieIdRegistry registry = new MovieIdRegistry();
+        assertTrue(registry.isAvailable("TM123"));
+
+        registry.add("TM123");
+
+        assertTrue(registry.contains("TM123"));
+        assertEquals(1, registry.size());
+        assertFalse(registry.isAvailable("TM123"));
+        assertFalse(registry.isAvailable("I123"));
+        assertTrue(registry.isAvailable("I124"));
+    }
+
+    @Test
+    void suffixBoundsTest() {
+        MovieIdRegistry registry = new MovieIdRegistry();
+        registry.add("A000");
+        registry.add("B999");
+
+        assertFalse(registry.isAvailable("C000"));
+        assertFalse(registry.isAvailable("C999"));
+        assertTrue(registry.isAvailable("C998"));
+    }
+
+    @Test
+    void validMovieIdWithRegistryTest() {
+        MovieIdRegistry registry = new MovieIdRegistry();
+        registry.add("EDR145");
+
+        assertTrue(Validators.validMovieId("TM123", "The Matrix", registry));
+        assertFalse(Validators.validMovieId("TM145", "The Matrix", registry));
+        assertFalse(Validators.validMovieId("TM12", "The Matrix", registry));
+        assertFalse(Validators.validMovieId("XY123", "The Matrix", registry));
+        assertFalse(Validators.validMovieId(null, "The Matrix", registry));
+    }
+
+    @Test
+    void validateMovieIncrementallyTest() {
+        MovieRecommendationSystem system = new MovieRecommendationSystem();
+        system.setMovies(Arrays.asList(new Movie("The Matrix", "TM123", Arrays.asList("Action"))));
+        system.setUsers(Arrays.asList());
+        system.validateData();
+        assertTrue(system.getErrors().isEmpty());
+        assertTrue(system.getMovieIdRegistry().contains("TM123"));
+
+        assertTrue(system.validateMovie(new Movie("Inception", "I124", Arrays.asList("Sci-Fi"))));
+        assertFalse(system.validateMovie(new Movie("Interstellar", "I123", Arrays.asList("Sci-Fi"))));
+        assertEquals("ERROR: Movie Id numbers I123 are not unique", system.getErrors().get(0));
+        assertEquals(2, system.getMovieIdRegistry().size());
+    }
+
+    @Test
+    void wideSuffixBitsetTest() {
+        MovieIdRegistry registry = new MovieIdRegistry(7, 0);
+        registry.add("TM0001234");
+
+        assertEquals(7, registry.getSuffixDigits());
+        assertFalse(registry.isAvailable("I0001234"));
+        assertTrue(registry.isAvailable("I9999999"));
+        assertTrue(Validators.validMovieId("TM1234567", "The Matrix", registry));
+        assertFalse(Validators.validMovieId("TM123", "The Matrix", registry));
+    }
+
+    @Test
+    void wideSuffixHashSetTest() {
+        MovieIdRegistry registry = new MovieIdRegistry(12, 4);
+        for (long i = 0; i < 100000; i++) {
+            registry.add("M" + String.format("%012d", i * 7919));
+        }
+
+        assertEquals(100000, registry.size());
+        assertFalse(registry.isAvailable("X" + String.format("%012d", 7919L * 99999)));
+        assertFalse(registry.isAvailable("X000000000000"));
+        assertTrue(registry.isAvailable("X" + String.format("%012d", 7919L * 100000)));
+        assertTrue(registry.isAvailable("X999999999999"));
+    }
+
+    @Test
+    void suffixDigitsBoundsTest() {
+        assertThrows(IllegalArgumentException.class, () -> new MovieIdRegistry(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new MovieIdRegistry(MovieIdRegistry.MAX_SUFFIX_DIGITS + 1, 0));
+        assertEquals(18, new MovieIdRegistry(18, 0).getSuffixDigits());
+    }
+
+    @Test
+    void wideIdModeTest() {
+        List<Movie> movies = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            movies.add(new Movie("Movie M" + i, "MM" + String.format("%05d", i), Arrays.asList("Action")));
+        }
+        MovieRecommendationSystem system = new MovieRecommendationSystem();
+        system.setMovieIdDigits(5);
+        system.setMovies(movies);
+        system.setUsers(Arrays.asList(new User("Ahmed", "111111111", Arrays.asList("MM01499"))));
+        system.validateData();
+
+        assertTrue(system.getErrors().isEmpty());
+        assertEquals(1500, system.getMovieIdRegistry().size());
+
+        assertFalse(system.validateMovie(new Movie("Heat", "H123", Arrays.asList("Crime"))));
+        assertEquals("ERROR: Movie Id numbers H123 are wrong", system.getErrors().get(0));
+        assertFalse(system.validateMovie(new Movie("Heat", "H01000", Arrays.asList("Crime"))));
+        assertEquals("ERROR: Movie Id numbers H01000 are not unique", system.getErrors().get(1));
+    }
+
+    @Test
+    void removeFreesIdAndSuffixTest() {
+        MovieIdRegistry registry = new MovieIdRegistry();
+        registry.add("I123");
+        registry.remove("I123");
+        registry.remove("X999");
+
+        assertEquals(0, registry.size());
+        assertTrue(registry.isAvailable("TM123"));
+    }
+
+    @Test
+    void wideSuffixHashSetRemoveTest() {
+        MovieIdRegistry registry = new MovieIdRegistry(12, 4);
+        for (long i = 0; i < 20000; i++) {
+            registry.add("M" + String.format("%012d", i * 7919));
+        }
+        for (long i = 0; i < 20000; i += 2) {
+            registry.remove("M" + String.format("%012d", i * 7919));
+        }
+
+        // Removing every other entry must leave the probe runs of the rest intact
+        assertEquals(10000, registry.size());
+        for (long i = 0; i < 20000; i++) {
+            assertEquals(i % 2 == 0, registry.isAvailable("X" + String.format("%012d", i * 7919)));
+        }
+    }
+}
@@ -4,8 +4,12 @@ import org.junit.jupiter.api.Test;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
 import static org.junit.jupiter.api.Assertions.*;
 
 class MovieRecommendationSystemTest {
@@ -969,6 +973,434 @@ class MovieRecommendationSystemTest {
     }
 
 
+    @Test
+    void createRecommendedMoviesAfterCatalogReplacedTest() {
+        Movie movie1 = new Movie("Inception", "I123", Arrays.asList("Sci-Fi", "Thriller"));
+        Movie movie2 = new Movie("The Matrix", "TM456", Arrays.asList("Action", "Sci-Fi"));
+        Movie movie3 = new Movie("Interstellar", "I789", Arrays.asList("Sci-Fi", "Drama"));
+
+        User user1 = new User("Ahmed Hassan", "111111111", Arrays.asList("I123"));
+
+        system.setMovies(Arrays.asList(movie1, movie2));
+        system.setUsers(Arrays.asList(user1));
+        system.createRecommendedMovies();
+        assertEquals(Arrays.asList("The Matrix"), user1.getRecommendedMoviesTitles());
+
+        system.setMovies(Arrays.asList(movie1, movie3));
+        system.createRecommendedMovies();
+        assertEquals(Arrays.asList("Interstellar"), user1.getRecommendedMoviesTitles());
+    }
+
+    @Test
+    void getMovieByIdTest() throws IOException {
+        Files.write(Paths.get(movieTestTXT), Arrays.asList(
+            "The Matrix, TM201",
+            "Action, Sci-Fi",
+            "Titanic, T102",
+            "Romance, Drama"
+        ));
+
+        system.loadMovies(movieTestTXT);
+
+        assertEquals("Titanic", system.getMovie("T102").getMovieTitle());
+        assertEquals("The Matrix", system.getMovie("TM201").getMovieTitle());
+        assertNull(system.getMovie("X999"));
+
+        system.setMovies(Arrays.asList(new Movie("Inception", "I123", Arrays.asList("Sci-Fi"))));
+        assertNull(system.getMovie("T102"));
+        assertEquals("Inception", system.getMovie("I123").getMovieTitle());
+    }
+
+    @Test
+    void createRecommendedMoviesInParallelTest() {
+        Movie movie1 = new Movie("Inception", "I123", Arrays.asList("Sci-Fi", "Thriller"));
+        Movie movie2 = new Movie("The Matrix", "TM456", Arrays.asList("Action", "Sci-Fi"));
+        Movie movie3 = new Movie("Interstellar", "I789", Arrays.asList("Sci-Fi", "Drama"));
+        Movie movie4 = new Movie("The Dark Knight", "TDK234", Arrays.asList("Action", "Crime"));
+
+        User user1 = new User("Ahmed Hassan", "111111111", Arrays.asList("I123"));
+        User user2 = new User("Sarah Mohamed", "22222222B", Arrays.asList("I789", "TDK234"));
+        User user3 = new User("Omar Ali", "33333333C", Arrays.asList(""));
+
+        system.setMovies(Arrays.asList(movie1, movie2, movie3, movie4));
+        system.setUsers(Arrays.asList(user1, user2, user3));
+        system.setParallel(true);
+        system.createRecommendedMovies();
+
+        assertTrue(system.getErrors().isEmpty());
+        assertEquals(2, user1.getRecommendedMoviesTitles().size());
+        assertTrue(user1.getRecommendedMoviesTitles().contains("Interstellar"));
+        assertEquals(2, user2.getRecommendedMoviesTitles().size());
+        assertTrue(user2.getRecommendedMoviesTitles().contains("Inception"));
+        assertTrue(user3.getRecommendedMoviesTitles().isEmpty());
+    }
+
+    @Test
+    void createRecommendedMoviesInParallelKeepsErrorOrderTest() {
+        Movie movie1 = new Movie("Inception", "I123", Arrays.asList("Sci-Fi", "Thriller"));
+        Movie movie2 = new Movie("The Matrix", "TM456", Arrays.asList("Action", "Sci-Fi"));
+
+        User user1 = new User("Ahmed Hassan", "111111111", Arrays.asList("I123"));
+        User user2 = new User("Sarah Mohamed", "22222222B", Arrays.asList("X111"));
+        User user3 = new User("Omar Ali", "33333333C", Arrays.asList("TM456"));
+        User user4 = new User("Mona Samy", "15256987L", Arrays.asList("Y222", "I123"));
+
+        system.setMovies(Arrays.asList(movie1, movie2));
+        system.setUsers(Arrays.asList(user1, user2, user3, user4));
+        system.setParallel(true);
+        system.createRecommendedMovies();
+
+        assertEquals(Arrays.asList(
+            "ERROR: User 22222222B liked movie IDs not in movies: X111",
+            "ERROR: User 15256987L liked movie IDs not in movies: Y222"
+        ), system.getErrors());
+        assertEquals(Arrays.asList("The Matrix"), user1.getRecommendedMoviesTitles());
+        assertTrue(user2.getRecommendedMoviesTitles().isEmpty());
+        assertTrue(user3.getRecommendedMoviesTitles().isEmpty());
+        assertTrue(user4.getRecommendedMoviesTitles().isEmpty());
+    }
+
+    @Test
+    void writeRecommendedMoviesInParallelTest() throws IOException {
+        Files.write(Paths.get(movieTestTXT), Arrays.asList(
+            "Inception, I123",
+            "Sci-Fi, Thriller",
+            "The Matrix, TM456",
+            "Action, Sci-Fi",
+            "Interstellar, I789",
+            "Sci-Fi, Drama",
+            "The Dark Knight, TDK234",
+            "Action, Crime"
+        ));
+        Files.write(Paths.get(userTestTXT), Arrays.asList(
+            "Ahmed Hassan, 111111111",
+            "I123",
+            "Sarah Mohamed, 22222222B",
+            "I789, TDK234"
+        ));
+
+        system.loadData(movieTestTXT, userTestTXT);
+        system.validateData();
+        system.createRecommendedMovies();
+        system.writeRecommendedMovies(recTestTXT);
+        List<String> sequential = Files.readAllLines(Paths.get(recTestTXT));
+
+        system = new MovieRecommendationSystem();
+        system.setParallel(true);
+        system.setRecommendationMode(RecommendationMode.BITSET);
+        system.loadData(movieTestTXT, userTestTXT);
+        system.validateData();
+        system.createRecommendedMovies();
+        system.writeRecommendedMovies(recTestTXT);
+
+        assertEquals(sequential, Files.readAllLines(Paths.get(recTestTXT)));
+    }
+
+    @Test
+    void loadDataMappedMatchesLoadDataTest() throws IOException {
+        Files.write(Paths.get(movieTestTXT), Arrays.asList(
+            "Inception, I123",
+            "Sci-Fi, Thriller",
+            "",
+            "Action",
+            "TDK123",
+            "Action",
+            " , I456",
+            "Drama",
+            "Interstellar,  ",
+            "Drama",
+            "The Matrix, TM456",
+            "  ",
+            "Avengers, A567",
+            "Action Adventure",
+            "Titanic, T102",
+            "Romance, , Drama,",
+            "Up, U101",
+            "Animation"
+        ));
+        Files.write(Paths.get(userTestTXT), Arrays.asList(
+            "Ahmed Hassan, 111111111",
+            "I123, T102",
+            "",
+            "I123",
+            "Sarah, Mohamed, 22222222B",
+            "I123",
+            "Omar Ali,",
+            "I123",
+            " , 33333333C",
+            "I123",
+            "Mona Samy, 15256987L",
+            "",
+            "Farah Haitham, 987654321",
+            "I123 T102",
+            "Malak Alaa, 12356734E",
+            " U101 ,I123 "
+        ));
+
+        system.loadData(movieTestTXT, userTestTXT);
+        MovieRecommendationSystem mapped = new MovieRecommendationSystem();
+        mapped.loadDataMapped(movieTestTXT, userTestTXT);
+
+        assertEquals(system.getErrors(), mapped.getErrors());
+        assertEquals(system.getMovies().size(), mapped.getMovies().size());
+        for (int i = 0; i < system.getMovies().size(); i++) {
+            assertEquals(system.getMovies().get(i).getMovieTitle(), mapped.getMovies().get(i).getMovieTitle());
+            assertEquals(system.getMovies().get(i).getMovieId(), mapped.getMovies().get(i).getMovieId());
+            assertEquals(system.getMovies().get(i).getMovieGenres(), mapped.getMovies().get(i).getMovieGenres());
+        }
+        assertEquals(system.getUsers().size(), mapped.getUsers().size());
+        for (int i = 0; i < system.getUsers().size(); i++) {
+            assertEquals(system.getUsers().get(i).getUserName(), mapped.getUsers().get(i).getUserName());
+            assertEquals(system.getUsers().get(i).getUserId(), mapped.getUsers().get(i).getUserId());
+            assertEquals(system.getUsers().get(i).getLikedMoviesIds(), mapped.getUsers().get(i).getLikedMoviesIds());
+        }
+    }
+
+    @Test
+    void loadDataMappedWithInvalidPathsTest() {
+        system.loadDataMapped(null, "invalid_users.txt");
+
+        assertEquals(Arrays.asList(
+            "ERROR: Invalid movie file path",
+            "ERROR: User file does not exist at invalid_users.txt"
+        ), system.getErrors());
+    }
+
+    @Test
+    void loadUsersParallelMatchesLoadUsersTest() throws IOException {
+        List<String> usersData = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            switch (i % 5) {
+                case 0: usersData.add("User Number, " + (100000000 + i)); usersData.add("I123, TM456"); break;
+                case 1: usersData.add(""); usersData.add("I123"); break;
+                case 2: usersData.add("Only Name"); usersData.add("I123"); break;
+                case 3: usersData.add("Another User, " + (200000000 + i)); usersData.add(""); break;
+                default: usersData.add("Spaced User, " + (300000000 + i)); usersData.add("I123 TM456"); break;
+            }
+        }
+        usersData.add("Dangling User, 999999999");
+        Files.write(Paths.get(userTestTXT), usersData);
+
+        system.loadUsers(userTestTXT);
+
+        for (int chunks = 1; chunks <= 64; chunks *= 2) {
+            MovieRecommendationSystem parallel = new MovieRecommendationSystem();
+            parallel.loadUsersParallel(userTestTXT, chunks);
+
+            assertEquals(system.getErrors(), parallel.getErrors(), "chunks=" + chunks);
+            assertEquals(system.getUsers().size(), parallel.getUsers().size(), "chunks=" + chunks);
+            for (int i = 0; i < system.getUsers().size(); i++) {
+                assertEquals(system.getUsers().get(i).getUserId(), parallel.getUsers().get(i).getUserId());
+                assertEquals(system.getUsers().get(i).getLikedMoviesIds(), parallel.getUsers().get(i).getLikedMoviesIds());
+            }
+        }
+    }
+
+    @Test
+    void loadUsersParallelWithCrlfTest() throws IOException {
+        StringBuilder usersData = new StringBuilder();
+        for (int i = 0; i < 30; i++) {
+            usersData.append(i % 7 == 0 ? "" : "User Name, " + (100000000 + i)).append("\r\n");
+            usersData.append(i % 2 == 0 ? "I123" : "I123 TM456").append(i % 3 == 0 ? "\r" : "\r\n");
+        }
+        Files.write(Paths.get(userTestTXT), usersData.toString().getBytes());
+
+        system.loadUsers(userTestTXT);
+
+        for (int chunks = 1; chunks <= 50; chunks += 7) {
+            MovieRecommendationSystem parallel = new MovieRecommendationSystem();
+            parallel.loadUsersParallel(userTestTXT, chunks);
+
+            assertEquals(system.getErrors(), parallel.getErrors(), "chunks=" + chunks);
+            assertEquals(system.getUsers().size(), parallel.getUsers().size(), "chunks=" + chunks);
+        }
+    }
+
+    @Test
+    void loadUsersParallelWithInvalidPathTest() {
+        system.loadUsersParallel("non_existent_file.txt");
+
+        assertTrue(system.getErrors().get(0).contains("User file does not exist"));
+        assertTrue(system.getUsers().isEmpty());
+    }
+
+    @Test
+    void writeRecommendedMoviesStreamingTest() throws IOException {
+        Files.write(Paths.get(movieTestTXT), Arrays.asList(
+            "Inception, I123",
+            "Sci-Fi, Thriller",
+            "The Matrix, TM456",
+            "Action, Sci-Fi",
+            "Interstellar, I789",
+            "Sci-Fi, Drama",
+            "The Dark Knight, TDK234",
+            "Action, Crime",
+            "The Conjuring, TC987",
+            "Horror, Thriller",
+            "Avengers, A567",
+            "Adventure"
+        ));
+        Files.write(Paths.get(userTestTXT), Arrays.asList(
+            "Ahmed Hassan, 111111111",
+            "I123",
+            "Sarah Mohamed, 22222222B",
+            "I789, TDK234",
+            "Mona Samy, 15256987L",
+            "",
+            "Farah Haitham, 987654321",
+            "TC987, TM456"
+        ));
+
+        system.loadData(movieTestTXT, userTestTXT);
+        system.validateData();
+        system.createRecommendedMovies();
+        system.writeRecommendedMovies(recTestTXT);
+        List<String> expected = Files.readAllLines(Paths.get(recTestTXT));
+
+        for (boolean parallel : new boolean[] {false, true}) {
+            MovieRecommendationSystem streaming = new MovieRecommendationSystem();
+            streaming.setParallel(parallel);
+            streaming.loadData(movieTestTXT, userTestTXT);
+            streaming.validateData();
+            streaming.writeRecommendedMoviesStreaming(recTestTXT);
+
+            assertEquals(expected, Files.readAllLines(Paths.get(recTestTXT)));
+            assertNull(streaming.getUsers().get(0).getRecommendedMoviesTitles());
+        }
+    }
+
+    @Test
+    void writeRecommendedMoviesStreamingWithErrorsTest() throws IOException {
+        Files.write(Paths.get(movieTestTXT), Arrays.asList(
+            "Inception, I123",
+            "Sci-Fi, Thriller"
+        ));
+        Files.write(Paths.get(userTestTXT), Arrays.asList(
+            "Ahmed Hassan, 111111111",
+            "I123",
+            "Sarah Mohamed, 22222222B",
+            "X789",
+            "Omar Ali, 33333333C",
+            "Y000"
+        ));
+
+        system.loadData(movieTestTXT, userTestTXT);
+        system.validateData();
+        system.writeRecommendedMoviesStreaming(recTestTXT);
+
+        assertEquals(Arrays.asList("ERROR: User 22222222B liked movie IDs not in movies: X789"),
+            Files.readAllLines(Paths.get(recTestTXT)));
+        assertEquals(2, system.getErrors().size());
+
+        system = new MovieRecommendationSystem();
+        Files.write(Paths.get(userTestTXT), Arrays.asList("Ahmed1, 111111111", "X789"));
+        system.loadData(movieTestTXT, userTestTXT);
+        system.validateData();
+        system.writeRecommendedMoviesStreaming(recTestTXT);
+
+        assertEquals(Arrays.asList("ERROR: User Name Ahmed1 is wrong"), Files.readAllLines(Paths.get(recTestTXT)));
+    }
+
+    private void assertFusedLoadMatches(List<String> moviesData, List<String> usersData) throws IOException {
+        Files.write(Paths.get(movieTestTXT), moviesData);
+        Files.write(Paths.get(userTestTXT), usersData);
+
+        MovieRecommendationSystem twoPass = new MovieRecommendationSystem();
+        twoPass.loadData(movieTestTXT, userTestTXT);
+        twoPass.validateData();
+        List<String> expectedErrors = new ArrayList<>(twoPass.getErrors());
+        twoPass.createRecommendedMovies();
+        twoPass.writeRecommendedMovies(recTestTXT);
+        List<String> expected = Files.readAllLines(Paths.get(recTestTXT));
+
+        MovieRecommendationSystem fused = new MovieRecommendationSystem();
+        fused.loadAndValidateData(movieTestTXT, userTestTXT);
+        assertEquals(expectedErrors, fused.getErrors());
+
+        fused.createRecommendedMovies();
+        fused.writeRecommendedMovies(recTestTXT);
+        assertEquals(expected, Files.readAllLines(Paths.get(recTestTXT)));
+    }
+
+    @Test
+    void loadAndValidateDataMatchesLoadDataTest() throws IOException {
+        List<String> validMovies = Arrays.asList(
+            "Inception, I123",
+            "Sci-Fi, Thriller",
+            "The Matrix, TM456",
+            "Action, Sci-Fi",
+            "Interstellar, I789",
+            "Sci-Fi, Drama"
+        );
+        List<String> validUsers = Arrays.asList(
+            "Ahmed Hassan, 111111111",
+            "I123",
+            "Sarah Mohamed, 22222222B",
+            "I789, TM456",
+            "Mona Samy, 15256987L",
+            ""
+        );
+        assertFusedLoadMatches(validMovies, validUsers);
+
+        // Validation error followed by a format error later in the file
+        assertFusedLoadMatches(Arrays.asList(
+            "Inception, I123",
+            "Sci-Fi",
+            "The Matrix, TM123",
+            "Action",
+            "Interstellar",
+            "Drama"
+        ), validUsers);
+
+        // Movie validation error stops user validation
+        assertFusedLoadMatches(Arrays.asList(
+            "inception, I123",
+            "Sci-Fi"
+        ), Arrays.asList(
+            "Ahmed1, 111111111",
+            "I123"
+        ));
+
+        // User validation errors
+        assertFusedLoadMatches(validMovies, Arrays.asList(
+            "Ahmed Hassan, 111111111",
+            "I123",
+            "Sarah Mohamed, 111111111",
+            "I789",
+            "Omar, 33333333C",
+            "I123 I789"
+        ));
+        assertFusedLoadMatches(validMovies, Arrays.asList(
+            "Ahmed Hassan, 1111",
+            "I123"
+        ));
+
+        // Unknown liked movie
+        assertFusedLoadMatches(validMovies, Arrays.asList(
+            "Ahmed Hassan, 111111111",
+            "I123, X999"
+        ));
+    }
+
+    @Test
+    void loadAndValidateDataSkipsInvalidRecordsTest() throws IOException {
+        Files.write(Paths.get(movieTestTXT), Arrays.asList(
+            "Inception, I123",
+            "Sci-Fi",
+            "The Matrix, TM123",
+            "Action",
+            "Interstellar, I789",
+            "Drama"
+        ));
+        Files.write(Paths.get(userTestTXT), Arrays.asList("Ahmed Hassan, 111111111", "I123"));
+
+        system.loadAndValidateData(movieTestTXT, userTestTXT);
+
+        assertEquals(Arrays.asList("ERROR: Movie Id numbers TM123 are not unique"), system.getErrors());
+        assertEquals(1, system.getMovies().size());
+        assertTrue(system.getUsers().isEmpty());
+    }
+
     @Test
     void loadDataWithInvalidLinesTest() throws IOException {
         // =============== Movies ===================
@@ -1409,4 +1841,971 @@ class MovieRecommendationSystemTest {
             ""
         ));
     }
+
+    @Test
+    void validateAllDataCollectsEveryErrorTest() throws IOException {
+        Files.write(Paths.get(movieTestTXT), Arrays.asList(
+            "inception, I123",
+            "Sci-Fi, Thriller",
+            "The Matrix, TM456",
+            "Action, Sci-Fi",
+            "Interstellar, I456",
+            "Sci-Fi, Drama",
+            "The Matrix, TM456",
+            "Action",
+            "Heat, H789",
+            "Crime"
+        ));
+        Files.write(Paths.get(userTestTXT), Arrays.asList(
+            "Ahmed Hassan, 111111111",
+            "TM456",
+            "Sara1, 222222222",
+            "H789",
+            "Mona, 111111111",
+            "H789",
+            "Omar, 3333",
+            "TM456"
+        ));
+
+        system.loadData(movieTestTXT, userTestTXT);
+        ValidationReport report = system.validateAllData();
+
+        List<String> expected = Arrays.asList(
+            "MOVIE #0: ERROR: Movie Title inception is wrong",
+            "MOVIE #2: ERROR: Movie Id numbers I456 are not unique",
+            "MOVIE #3: ERROR: Movie Id numbers TM456 are not unique",
+            "USER #1: ERROR: User Name Sara1 is wrong",
+            "USER #2: ERROR: User Id 111111111 is duplicated",
+            "USER #3: ERROR: User Id 3333 format is wrong"
+        );
+        assertEquals(expected, report.toLines());
+        assertEquals(3, report.getCount(ValidationError.RecordType.MOVIE));
+        assertEquals(3, report.getCount(ValidationError.RecordType.USER));
+        assertFalse(report.isTruncated());
+        assertEquals(Arrays.asList("ERROR: Movie Title inception is wrong"), system.getErrors());
+    }
+
+    @Test
+    void validateAllDataFirstErrorMatchesValidateDataTest() throws IOException {
+        Files.write(Paths.get(movieTestTXT), Arrays.asList(
+            "Inception, I123",
+            "Sci-Fi, Thriller",
+            "The Matrix, TM123",
+            "Action, Sci-Fi"
+        ));
+        Files.write(Paths.get(userTestTXT), Arrays.asList(
+            "Ahmed Hassan, 111111111",
+            "I123",
+            "Mona, 1111",
+            "I123"
+        ));
+
+        MovieRecommendationSystem failFast = new MovieRecommendationSystem();
+        failFast.loadData(movieTestTXT, userTestTXT);
+        failFast.validateData();
+
+        system.loadData(movieTestTXT, userTestTXT);
+        ValidationReport report = system.validateAllData();
+
+        assertEquals(2, report.getTotalCount());
+        assertEquals(failFast.getErrors(), system.getErrors());
+
+        system.createRecommendedMovies();
+        system.writeRecommendedMovies(recTestTXT);
+        assertEquals(Arrays.asList("ERROR: Movie Id numbers TM123 are not unique"), Files.readAllLines(Paths.get(recTestTXT)));
+    }
+
+    @Test
+    void validateAllDataCapsErrorBufferTest() throws IOException {
+        List<String> usersData = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            usersData.add("User" + i + ", 11111111" + (char) ('A' + i % 26));
+            usersData.add("I123");
+        }
+        Files.write(Paths.get(movieTestTXT), Arrays.asList("Inception, I123", "Sci-Fi"));
+        Files.write(Paths.get(userTestTXT), usersData);
+
+        system.loadData(movieTestTXT, userTestTXT);
+        ValidationReport report = system.validateAllData(10);
+
+        assertEquals(50, report.getTotalCount());
+        assertEquals(10, report.getErrors().size());
+        assertEquals(40, report.getDroppedCount());
+        assertEquals(9, report.getErrors().get(9).getRecordIndex());
+        assertEquals("... 40 more errors (0 movie, 50 user in total)", report.toLines().get(10));
+        assertEquals(1, system.getErrors().size());
+    }
+
+    @Test
+    void validateAllDataWithValidDataTest() throws IOException {
+        Files.write(Paths.get(movieTestTXT), Arrays.asList(
+            "Inception, I123",
+            "Sci-Fi, Thriller",
+            "The Matrix, TM456",
+            "Action, Sci-Fi"
+        ));
+        Files.write(Paths.get(userTestTXT), Arrays.asList(
+            "Ahmed Hassan, 111111111",
+            "I123"
+        ));
+
+        system.loadData(movieTestTXT, userTestTXT);
+        ValidationReport report = system.validateAllData();
+
+        assertTrue(report.isEmpty());
+        assertTrue(system.getErrors().isEmpty());
+        assertTrue(system.getMovieIdRegistry().contains("TM456"));
+    }
+
+    @Test
+    void loadedGenresShareDictionaryEntriesTest() throws IOException {
+        Files.write(Paths.get(movieTestTXT), Arrays.asList(
+            "Inception, I123",
+            "Sci-Fi, Thriller",
+            "The Matrix, TM456",
+            "Action, Sci-Fi"
+        ));
+
+        system.loadMovies(movieTestTXT);
+        Movie inception = system.getMovies().get(0);
+        Movie matrix = system.getMovies().get(1);
+        GenreDictionary dictionary = system.getGenreDictionary();
+
+        assertSame(inception.getMovieGenres().get(0), matrix.getMovieGenres().get(1));
+        assertEquals(3, dictionary.size());
+        assertArrayEquals(new int[] {dictionary.getId("Action"), dictionary.getId("Sci-Fi")}, matrix.getGenreIds());
+
+        MovieRecommendationSystem mapped = new MovieRecommendationSystem();
+        mapped.loadMoviesMapped(movieTestTXT);
+        assertSame(mapped.getMovies().get(0).getMovieGenres().get(0), mapped.getMovies().get(1).getMovieGenres().get(1));
+    }
+
+    @Test
+    void compactUsersKeepsOutputTest() throws IOException {
+        Files.write(Paths.get(movieTestTXT), Arrays.asList(
+            "Inception, I123",
+            "Sci-Fi, Thriller",
+            "The Matrix, TM456",
+            "Action, Sci-Fi",
+            "Interstellar, I789",
+            "Sci-Fi, Drama",
+            "The Conjuring, TC987",
+            "Horror, Thriller"
+        ));
+        Files.write(Paths.get(userTestTXT), Arrays.asList(
+            "Ahmed Hassan, 111111111",
+            "I123",
+            "Farah Haitham, 987654321",
+            "TC987, TM456",
+            "Mona Samy, 15256987L",
+            ""
+        ));
+
+        system.loadData(movieTestTXT, userTestTXT);
+        system.validateData();
+        system.createRecommendedMovies();
+        system.writeRecommendedMovies(recTestTXT);
+        List<String> expected = Files.readAllLines(Paths.get(recTestTXT));
+
+        MovieRecommendationSystem compact = new MovieRecommendationSystem();
+        compact.loadData(movieTestTXT, userTestTXT);
+        compact.validateData();
+        assertEquals(2, compact.compactUsers());
+        compact.createRecommendedMovies();
+        compact.writeRecommendedMovies(recTestTXT);
+
+        assertEquals(expected, Files.readAllLines(Paths.get(recTestTXT)));
+        User farah = compact.getUsers().get(1);
+        assertArrayEquals(new int[] {3, 1}, farah.getLikedMovieIndices());
+        assertEquals(Arrays.asList("TC987", "TM456"), farah.getLikedMoviesIds());
+        assertNotNull(farah.getRecommendedMovieIndices());
+        assertFalse(compact.getUsers().get(2).isCompact());
+    }
+
+    @Test
+    void compactUsersKeepsUnknownIdsTest() throws IOException {
+        Files.write(Paths.get(movieTestTXT), Arrays.asList(
+            "Inception, I123",
+            "Sci-Fi, Thriller"
+        ));
+        Files.write(Paths.get(userTestTXT), Arrays.asList(
+            "Ahmed Hassan, 111111111",
+            "I123, X999"
+        ));
+
+        system.loadData(movieTestTXT, userTestTXT);
+        assertEquals(0, system.compactUsers());
+        system.createRecommendedMovies();
+
+        assertEquals("ERROR: User 111111111 liked movie IDs not in movies: X999", system.getErrors().get(0));
+    }
+
+    @Test
+    void compactUsersSurviveMovieReloadTest() throws IOException {
+        Files.write(Paths.get(movieTestTXT), Arrays.asList(
+            "Inception, I123",
+            "Sci-Fi, Thriller",
+            "The Matrix, TM456",
+            "Action, Sci-Fi"
+        ));
+        Files.write(Paths.get(userTestTXT), Arrays.asList(
+            "Ahmed Hassan, 111111111",
+            "TM456"
+        ));
+
+        system.loadData(movieTestTXT, userTestTXT);
+        system.compactUsers();
+
+        Files.write(Paths.get(movieTestTXT), Arrays.asList(
+            "The Matrix, TM456",
+            "Action, Sci-Fi"
+        ));
+        system.loadMovies(movieTestTXT);
+
+        assertEquals(Arrays.asList("TM456"), system.getUsers().get(0).getLikedMoviesIds());
+    }
+
+    @Test
+    void offHeapCatalogKeepsOutputTest() throws IOException {
+        Files.write(Paths.get(movieTestTXT), Arrays.asList(
+            "Inception, I123",
+            "Sci-Fi, Thriller",
+            "The Matrix, TM456",
+            "Action, Sci-Fi",
+            "Interstellar, I789",
+            "Sci-Fi, Drama",
+            "The Dark Knight, TDK234",
+            "Action, Crime",
+            "The Conjuring, TC987",
+            "Horror, Thriller"
+        ));
+        Files.write(Paths.get(userTestTXT), Arrays.asList(
+            "Ahmed Hassan, 111111111",
+            "I123",
+            "Sarah Mohamed, 22222222B",
+            "I789, TDK234",
+            "Farah Haitham, 987654321",
+            "TC987, TM456"
+        ));
+
+        system.loadData(movieTestTXT, userTestTXT);
+        system.validateData();
+        system.createRecommendedMovies();
+        system.writeRecommendedMovies(recTestTXT);
+        List<String> expected = Files.readAllLines(Paths.get(recTestTXT));
+
+        for (RecommendationMode mode : Arrays.asList(RecommendationMode.GENRE, RecommendationMode.BITSET)) {
+            MovieRecommendationSystem offHeap = new MovieRecommendationSystem();
+            offHeap.loadData(movieTestTXT, userTestTXT);
+            offHeap.validateData();
+            try (MovieCatalog catalog = MovieCatalog.of(offHeap.getMovies(), offHeap.getGenreDictionary())) {
+                offHeap.setMovieCatalog(catalog);
+                offHeap.setRecommendationMode(mode);
+                offHeap.compactUsers();
+                offHeap.createRecommendedMovies();
+                offHeap.writeRecommendedMovies(recTestTXT);
+
+                assertSame(catalog, offHeap.getMovieCatalog());
+                assertEquals("The Matrix", offHeap.getMovie("TM456").getMovieTitle());
+                assertEquals(expected, Files.readAllLines(Paths.get(recTestTXT)));
+
+                offHeap.writeRecommendedMoviesStreaming(recTestTXT);
+                assertEquals(expected, Files.readAllLines(Paths.get(recTestTXT)));
+            }
+        }
+    }
+
+    @Test
+    void rankedRecommendationsTest() throws IOException {
+        Files.write(Paths.get(movieTestTXT), Arrays.asList(
+            "Inception, I123",
+            "Sci-Fi, Thriller",
+            "The Matrix, TM456",
+            "Action, Sci-Fi",
+            "Interstellar, I789",
+            "Sci-Fi, Drama",
+            "The Dark Knight, TDK234",
+            "Action, Crime",
+            "The Conjuring, TC987",
+            "Horror, Thriller",
+            "Avengers, A567",
+            "Adventure"
+        ));
+        Files.write(Paths.get(userTestTXT), Arrays.asList(
+            "Farah Haitham, 987654321",
+            "TC987, TM456",
+            "Omar Ali, 33333333C",
+            "A567"
+        ));
+
+        system.loadData(movieTestTXT, userTestTXT);
+        system.validateData();
+        system.setRecommendationMode(RecommendationMode.RANKED);
+        system.createRecommendedMovies();
+
+        // Inception shares two liked genres; the single-genre matches are ordered by title
+        assertEquals(Arrays.asList("Inception", "Interstellar", "The Dark Knight"), system.getUsers().get(0).getRecommendedMoviesTitles());
+        assertTrue(system.getUsers().get(1).getRecommendedMoviesTitles().isEmpty());
+
+        system.setTopK(2);
+        system.createRecommendedMovies();
+        assertEquals(Arrays.asList("Inception", "Interstellar"), system.getUsers().get(0).getRecommendedMoviesTitles());
+
+        system.setTopK(0);
+        system.createRecommendedMovies();
+        assertTrue(system.getUsers().get(0).getRecommendedMoviesTitles().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> system.setTopK(-1));
+    }
+
+    @Test
+    void rankedMatchesGenreCandidatesTest() {
+        Random random = new Random(18);
+        List<Movie> movies = RecommendationBenchmark.generateMovies(300, random);
+        List<User> users = RecommendationBenchmark.generateUsers(50, 5, movies, random);
+        system.setMovies(movies);
+        system.setUsers(users);
+
+        system.createRecommendedMovies();
+        List<List<String>> genreResults = new ArrayList<>();
+        for (User user : users) {
+            genreResults.add(new ArrayList<>(user.getRecommendedMoviesTitles()));
+        }
+
+        system.setRecommendationMode(RecommendationMode.RANKED);
+        system.setTopK(1000);
+        system.setParallel(true);
+        system.createRecommendedMovies();
+
+        for (int i = 0; i < users.size(); i++) {
+            List<String> ranked = users.get(i).getRecommendedMoviesTitles();
+            assertEquals(new HashSet<>(genreResults.get(i)), new HashSet<>(ranked));
+            assertEquals(genreResults.get(i).size(), ranked.size());
+        }
+    }
+
+    @Test
+    void memoizedGenreRecommendationsMatchTest() {
+        Random random = new Random(19);
+        List<Movie> movies = RecommendationBenchmark.generateMovies(400, random);
+        List<User> users = RecommendationBenchmark.generateUsers(200, 3, movies, random);
+        system.setMovies(movies);
+        system.setUsers(users);
+
+        system.createRecommendedMovies();
+        List<List<String>> expected = new ArrayList<>();
+        for (User user : users) {
+            expected.add(new ArrayList<>(user.getRecommendedMoviesTitles()));
+        }
+
+        system.setRecommendationCacheEnabled(true);
+        for (boolean parallel : new boolean[] {false, true}) {
+            system.setParallel(parallel);
+            system.createRecommendedMovies();
+            for (int i = 0; i < users.size(); i++) {
+                assertEquals(expected.get(i), users.get(i).getRecommendedMoviesTitles());
+            }
+        }
+    }
+
+    @Test
+    void recommendationCacheCountsSharedSignaturesTest() {
+        system.setMovies(new ArrayList<>(List.of(
+            new Movie("The Matrix", "TM123", List.of("Action", "Sci-Fi")),
+            new Movie("Heat", "H456", List.of("Action")),
+            new Movie("Alien", "A789", List.of("Sci-Fi"))
+        )));
+        system.setUsers(new ArrayList<>(List.of(
+            new User("Farah", "12345678A", new ArrayList<>(List.of("TM123"))),
+            new User("Omar", "12345678B", new ArrayList<>(List.of("TM123"))),
+            new User("Mona", "12345678C", new ArrayList<>(List.of("H456")))
+        )));
+        system.setRecommendationCacheEnabled(true);
+
+        system.createRecommendedMovies();
+
+        RecommendationCache cache = system.getRecommendationCache();
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(2, cache.size());
+        assertEquals(Set.of("Heat", "Alien"), new HashSet<>(system.getUsers().get(1).getRecommendedMoviesTitles()));
+        assertEquals(List.of("The Matrix"), system.getUsers().get(2).getRecommendedMoviesTitles());
+
+        system.setMovies(system.getMovies());
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    void recommendationCacheKeysOnGenreSetTest() {
+        system.setMovies(new ArrayList<>(List.of(
+            new Movie("The Matrix", "TM123", List.of("Action", "Sci-Fi")),
+            new Movie("Heat", "H456", List.of("Action")),
+            new Movie("Alien", "A789", List.of("Sci-Fi")),
+            new Movie("Heat", "H111", List.of("Sci-Fi")),
+            new Movie("Big", "B222", List.of("Drama", "Comedy")),
+            new Movie("Up", "U333", List.of("Comedy")),
+            new Movie("Jaws", "J444", List.of("Drama"))
+        )));
+        system.setUsers(new ArrayList<>(List.of(
+            new User("Farah", "12345678A", new ArrayList<>(List.of("TM123"))),
+            new User("Omar", "12345678B", new ArrayList<>(List.of("A789", "H456"))),
+            new User("Mona", "12345678C", new ArrayList<>(List.of("B222"))),
+            new User("Sara", "12345678D", new ArrayList<>(List.of("U333", "J444")))
+        )));
+        system.createRecommendedMovies();
+        List<List<String>> expected = recommendedTitles(system.getUsers());
+
+        system.setRecommendationCacheEnabled(true);
+        system.createRecommendedMovies();
+
+        // Sara liked Comedy before Drama and still shares Mona's entry. "Action" and "Sci-Fi"
+        // share a HashSet bucket, so Omar, who liked them in the other order than Farah, walks
+        // uncached and counts as neither a hit nor a miss.
+        assertEquals(1, system.getRecommendationCache().getHits());
+        assertEquals(2, system.getRecommendationCache().getMisses());
+        assertEquals(expected, recommendedTitles(system.getUsers()));
+    }
+
+    @Test
+    void collaborativeRecommendationsTest() throws IOException {
+        Files.write(Paths.get(movieTestTXT), Arrays.asList(
+            "Inception, I123",
+            "Sci-Fi, Thriller",
+            "The Matrix, TM456",
+            "Action, Sci-Fi",
+            "Interstellar, I789",
+            "Sci-Fi, Drama",
+            "The Dark Knight, TDK234",
+            "Action, Crime"
+        ));
+        Files.write(Paths.get(userTestTXT), Arrays.asList(
+            "Farah Haitham, 987654321",
+            "I123, TM456",
+            "Omar Ali, 33333333C",
+            "I123, TM456, I789",
+            "Mona Adel, 11111111A",
+            "I123, TDK234",
+            "Sara Nabil, 22222222B",
+            "I789"
+        ));
+
+        system.loadData(movieTestTXT, userTestTXT);
+        system.validateData();
+        system.setRecommendationMode(RecommendationMode.COLLABORATIVE);
+        system.createRecommendedMovies();
+
+        // Interstellar was liked together with both of Farah's movies, The Dark Knight with one
+        assertEquals(Arrays.asList("Interstellar", "The Dark Knight"), system.getUsers().get(0).getRecommendedMoviesTitles());
+        assertEquals(Arrays.asList("The Dark Knight"), system.getUsers().get(1).getRecommendedMoviesTitles());
+        assertEquals(Arrays.asList("The Matrix", "Interstellar"), system.getUsers().get(2).getRecommendedMoviesTitles());
+        assertEquals(Arrays.asList("Inception", "The Matrix"), system.getUsers().get(3).getRecommendedMoviesTitles());
+
+        system.setNeighborCount(1);
+        system.createRecommendedMovies();
+        assertTrue(system.getUsers().get(0).getRecommendedMoviesTitles().isEmpty());
+        assertEquals(Arrays.asList("Inception"), system.getUsers().get(3).getRecommendedMoviesTitles());
+        assertThrows(IllegalArgumentException.class, () -> system.setNeighborCount(0));
+    }
+
+    @Test
+    void userNeighborRecommendationsTest() throws IOException {
+        Files.write(Paths.get(movieTestTXT), Arrays.asList(
+            "Inception, I123",
+            "Sci-Fi, Thriller",
+            "The Matrix, TM456",
+            "Action, Sci-Fi",
+            "Interstellar, I789",
+            "Sci-Fi, Drama",
+            "The Dark Knight, TDK234",
+            "Action, Crime"
+        ));
+        Files.write(Paths.get(userTestTXT), Arrays.asList(
+            "Farah Haitham, 987654321",
+            "I123, TM456",
+            "Omar Ali, 33333333C",
+            "I123, TM456, I789",
+            "Mona Adel, 11111111A",
+            "I123, TM456, TDK234",
+            "Sara Nabil, 22222222B",
+            "I789"
+        ));
+
+        system.loadData(movieTestTXT, userTestTXT);
+        system.validateData();
+        system.setRecommendationMode(RecommendationMode.USER_NEIGHBORS);
+        system.createRecommendedMovies();
+
+        // Omar and Mona each share two of Farah's likes and add one movie
+        assertEquals(Arrays.asList("Interstellar", "The Dark Knight"), system.getUsers().get(0).getRecommendedMoviesTitles());
+        assertEquals(Arrays.asList("The Dark Knight"), system.getUsers().get(1).getRecommendedMoviesTitles());
+        assertEquals(Arrays.asList("Inception", "The Matrix"), system.getUsers().get(3).getRecommendedMoviesTitles());
+    }
+
+    @Test
+    void alsRecommendationsReuseSavedFactorsTest() throws IOException {
+        String factorsFile = "test_system_als.factors";
+        Files.write(Paths.get(movieTestTXT), Arrays.asList(
+            "Inception, I123",
+            "Sci-Fi, Thriller",
+            "The Matrix, TM456",
+            "Action, Sci-Fi",
+            "Interstellar, I789",
+            "Sci-Fi, Drama",
+            "The Dark Knight, TDK234",
+            "Action, Crime"
+        ));
+        Files.write(Paths.get(userTestTXT), Arrays.asList(
+            "Farah Haitham, 987654321",
+            "I123, TM456",
+            "Omar Ali, 33333333C",
+            "I123, TM456, I789",
+            "Mona Adel, 11111111A",
+            "TDK234"
+        ));
+
+        try {
+            system.loadData(movieTestTXT, userTestTXT);
+            system.validateData();
+            system.setRecommendationMode(RecommendationMode.ALS);
+            system.setAlsFactorsPath(factorsFile);
+            system.createRecommendedMovies();
+
+            assertTrue(Files.exists(Paths.get(factorsFile)));
+            assertEquals(AlsRecommender.DEFAULT_ITERATIONS, system.getAlsRecommender().getIterations());
+            List<String> farah = system.getUsers().get(0).getRecommendedMoviesTitles();
+            assertEquals("Interstellar", farah.get(0));
+            assertFalse(farah.contains("Inception"));
+
+            MovieRecommendationSystem reloaded = new MovieRecommendationSystem();
+            reloaded.loadData(movieTestTXT, userTestTXT);
+            reloaded.validateData();
+            reloaded.setRecommendationMode(RecommendationMode.ALS);
+            reloaded.setAlsFactorsPath(factorsFile);
+            reloaded.setAlsIterations(AlsRecommender.DEFAULT_ITERATIONS + 2);
+            reloaded.createRecommendedMovies();
+            assertEquals(AlsRecommender.DEFAULT_ITERATIONS + 2, reloaded.getAlsRecommender().getIterations());
+            assertThrows(IllegalArgumentException.class, () -> reloaded.setAlsIterations(-1));
+        } finally {
+            Files.deleteIfExists(Paths.get(factorsFile));
+        }
+    }
+
+    @Test
+    void duplicatedIdLikesGenresOfEveryCopyTest() {
+        // Unvalidated data: a liked ID stands for every movie with that ID, as it did before
+        // movies were indexed
+        for (RecommendationMode mode : new RecommendationMode[] {RecommendationMode.GENRE, RecommendationMode.BITSET, RecommendationMode.RANKED}) {
+            MovieRecommendationSystem unvalidated = new MovieRecommendationSystem();
+            unvalidated.setMovies(new ArrayList<>(List.of(
+                new Movie("Heat", "H456", List.of("Action")),
+                new Movie("Heat", "H456", List.of("Crime")),
+                new Movie("Alien", "A111", List.of("Crime"))
+            )));
+            unvalidated.setUsers(new ArrayList<>(List.of(new User("Farah", "12345678A", new ArrayList<>(List.of("H456"))))));
+            unvalidated.setRecommendationMode(mode);
+            unvalidated.createRecommendedMovies();
+
+            assertEquals(List.of("Alien"), unvalidated.getUsers().get(0).getRecommendedMoviesTitles());
+        }
+    }
+
+    @Test
+    void customRecommendationEngineTest() {
+        system.setMovies(new ArrayList<>(List.of(
+            new Movie("The Matrix", "TM123", List.of("Action", "Sci-Fi")),
+            new Movie("Heat", "H456", List.of("Action")),
+            new Movie("Alien", "A789", List.of("Sci-Fi"))
+        )));
+        system.setUsers(new ArrayList<>(List.of(
+            new User("Farah", "12345678A", new ArrayList<>(List.of("TM123"))),
+            new User("Omar", "12345678B", new ArrayList<>(List.of("H456", "A789")))
+        )));
+
+        // Recommends every movie the user has not liked, last catalog position first
+        RecommendationEngine unseen = new RecommendationEngine() {
+            private CatalogIndex index;
+
+            @Override
+            public void prepare(CatalogIndex index, List<User> users) {
+                this.index = index;
+                assertThrows(UnsupportedOperationException.class, () -> users.remove(0));
+            }
+
+            @Override
+            public int[] recommend(User user) {
+                int[] liked = index.likedPositions(user);
+                List<Integer> unliked = new ArrayList<>();
+                for (int i = index.size() - 1; i >= 0; i--) {
+                    if (Arrays.binarySearch(liked, i) < 0) unliked.add(i);
+                }
+                return unliked.stream().mapToInt(Integer::intValue).toArray();
+            }
+        };
+        system.setRecommendationEngine(unseen);
+        system.createRecommendedMovies();
+
+        assertSame(unseen, system.getRecommendationEngine());
+        assertEquals(List.of("Alien", "Heat"), system.getUsers().get(0).getRecommendedMoviesTitles());
+        assertEquals(List.of("The Matrix"), system.getUsers().get(1).getRecommendedMoviesTitles());
+
+        system.setRecommendationEngine(null);
+        system.createRecommendedMovies();
+        assertEquals(Set.of("Heat", "Alien"), new HashSet<>(system.getUsers().get(0).getRecommendedMoviesTitles()));
+    }
+
+    private static List<List<String>> recommendedTitles(List<User> users) {
+        List<List<String>> titles = new ArrayList<>();
+        for (User user : users) {
+            titles.add(new ArrayList<>(user.getRecommendedMoviesTitles()));
+        }
+        return titles;
+    }
+
+    private static List<List<String>> fullRun(List<Movie> movies, List<User> users, RecommendationMode mode) {
+        MovieRecommendationSystem fresh = new MovieRecommendationSystem();
+        fresh.setMovies(movies);
+        List<User> copies = new ArrayList<>();
+        for (User user : users) {
+            copies.add(new User(user.getUserName(), user.getUserId(), new ArrayList<>(user.getLikedMoviesIds())));
+        }
+        fresh.setUsers(copies);
+        fresh.setRecommendationMode(mode);
+        fresh.createRecommendedMovies();
+        return recommendedTitles(copies);
+    }
+
+    @Test
+    void addMovieRecomputesOnlyAffectedUsersTest() {
+        for (RecommendationMode mode : new RecommendationMode[] {RecommendationMode.GENRE, RecommendationMode.BITSET, RecommendationMode.RANKED}) {
+            Random random = new Random(24);
+            List<Movie> movies = RecommendationBenchmark.generateMovies(300, random);
+            List<User> users = RecommendationBenchmark.generateUsers(100, 1, movies, random);
+            MovieRecommendationSystem incremental = new MovieRecommendationSystem();
+            incremental.setMovies(movies);
+            incremental.setUsers(users);
+            incremental.setRecommendationMode(mode);
+            incremental.setParallel(mode == RecommendationMode.BITSET);
+            incremental.createRecommendedMovies();
+            List<int[]> before = new ArrayList<>();
+            for (User user : users) {
+                before.add(user.getRecommendedMovieIndices());
+            }
+
+            // M100 to M299 hold the 3-digit suffixes below 300
+            assertFalse(incremental.addMovie(new Movie("Zodiac Killer", "ZK123", new ArrayList<>(List.of("Western")))));
+            Movie added = new Movie("Zodiac Killer", "ZK999", new ArrayList<>(List.of("Western", "Noir")));
+            assertTrue(incremental.addMovie(added));
+
+            assertSame(added, incremental.getMovie("ZK999"));
+            assertEquals(fullRun(incremental.getMovies(), users, mode), recommendedTitles(users));
+            int western = incremental.getGenreDictionary().getId("Western");
+            int untouched = 0;
+            for (int i = 0; i < users.size(); i++) {
+                boolean likesWestern = false;
+                for (String likedMovieId : users.get(i).getLikedMoviesIds()) {
+                    likesWestern |= incremental.getMovie(likedMovieId).getMovieGenres().contains("Western");
+                }
+                if (!likesWestern) {
+                    assertSame(before.get(i), users.get(i).getRecommendedMovieIndices());
+                    untouched++;
+                }
+            }
+            assertTrue(untouched > 50);
+            assertEquals(western, incremental.getCatalogIndex().getGenreIds(300)[0]);
+        }
+    }
+
+    @Test
+    void removeMovieRecomputesOnlyAffectedUsersTest() {
+        Random random = new Random(24);
+        List<Movie> movies = RecommendationBenchmark.generateMovies(300, random);
+        List<User> users = RecommendationBenchmark.generateUsers(100, 1, movies, random);
+        system.setMovies(movies);
+        system.setUsers(users);
+        system.setRecommendationCacheEnabled(true);
+        system.createRecommendedMovies();
+
+        String likedId = users.get(0).getLikedMoviesIds().get(0);
+        assertFalse(system.removeMovie(likedId));
+        assertFalse(system.removeMovie("X999"));
+
+        Set<String> likedIds = new HashSet<>();
+        for (User user : users) {
+            likedIds.addAll(user.getLikedMoviesIds());
+        }
+        int removed = 0;
+        for (int i = 0; removed < 5; i++) {
+            String movieId = "M" + i;
+            if (likedIds.contains(movieId)) continue;
+            assertTrue(system.removeMovie(movieId));
+            assertNull(system.getMovie(movieId));
+            removed++;
+        }
+
+        assertEquals(295, system.getMovies().size());
+        assertEquals(fullRun(system.getMovies(), users, RecommendationMode.GENRE), recommendedTitles(users));
+    }
+
+    @Test
+    void catalogChangesBeforeRecommendingTest() {
+        system.setMovies(new ArrayList<>(List.of(new Movie("Heat", "H456", List.of("Action")))));
+        system.setUsers(new ArrayList<>(List.of(new User("Farah", "12345678A", new ArrayList<>(List.of("H456"))))));
+
+        assertTrue(system.addMovie(new Movie("The Matrix", "TM123", new ArrayList<>(List.of("Action")))));
+        assertNull(system.getUsers().get(0).getRecommendedMoviesTitles());
+        // Rejected adds leave errors alone, so the next run is unaffected
+        Movie invalid = new Movie("the matrix", "TM124", new ArrayList<>(List.of("Action")));
+        assertFalse(system.addMovie(invalid));
+        assertEquals("ERROR: Movie Title the matrix is wrong", system.checkMovie(invalid));
+        assertFalse(system.addMovie(new Movie("Heat", "H456", new ArrayList<>(List.of("Action")))));
+        assertFalse(system.addMovie(new Movie("The Matrix", "TM123", new ArrayList<>(List.of("Action")))));
+        assertFalse(system.addMovie(new Movie("Top Gun", "TG123", new ArrayList<>(List.of("Action")))));
+        assertTrue(system.getErrors().isEmpty());
+        assertEquals(2, system.getMovies().size());
+
+        system.createRecommendedMovies();
+        assertEquals(List.of("The Matrix"), system.getUsers().get(0).getRecommendedMoviesTitles());
+        assertTrue(system.removeMovie("TM123"));
+        assertTrue(system.addMovie(new Movie("Top Gun", "TG123", new ArrayList<>(List.of("Action")))));
+        assertEquals(List.of("Top Gun"), system.getUsers().get(0).getRecommendedMoviesTitles());
+    }
+
+    @Test
+    void catalogChangesOnFixedSizeMovieListTest() {
+        system.setMovies(Arrays.asList(new Movie("Heat", "H456", List.of("Action"))));
+        system.setUsers(new ArrayList<>());
+
+        assertTrue(system.addMovie(new Movie("Up", "U222", new ArrayList<>(List.of("Comedy")))));
+        assertEquals(2, system.getMovies().size());
+        assertTrue(system.removeMovie("H456"));
+        assertEquals(1, system.getMovies().size());
+        assertTrue(system.addMovie(new Movie("Heat", "H456", new ArrayList<>(List.of("Action")))));
+    }
+
+    @Test
+    void removeMovieAfterMovieListReplacedTest() {
+        List<Movie> movies = new ArrayList<>(List.of(
+            new Movie("Avatar", "A111", List.of("Action")),
+            new Movie("Heat", "H456", List.of("Crime")),
+            new Movie("Up", "U222", List.of("Comedy"))));
+        system.setMovies(movies);
+        system.setUsers(new ArrayList<>(List.of(new User("Farah", "12345678A", new ArrayList<>(List.of("U222"))))));
+        system.createRecommendedMovies();
+        system.compactUsers();
+
+        system.setMovies(new ArrayList<>(movies));
+        assertTrue(system.removeMovie("H456"));
+
+        assertEquals(List.of("U222"), system.getUsers().get(0).getLikedMoviesIds());
+        assertTrue(system.getErrors().isEmpty());
+        system.createRecommendedMovies();
+        assertTrue(system.getErrors().isEmpty());
+    }
+
+    @Test
+    void removeMovieChecksUsersChangedAfterRunTest() {
+        system.setMovies(new ArrayList<>(List.of(
+            new Movie("Heat", "H456", List.of("Action")),
+            new Movie("Speed", "S333", List.of("Action")),
+            new Movie("Up", "U222", List.of("Comedy")))));
+        system.setUsers(new ArrayList<>(List.of(
+            new User("Farah", "12345678A", new ArrayList<>(List.of("H456"))),
+            new User("Omar", "12345678B", new ArrayList<>(List.of("U222"))))));
+        system.createRecommendedMovies();
+
+        system.getUsers().add(new User("Mona", "12345678C", new ArrayList<>(List.of("S333"))));
+        assertFalse(system.removeMovie("S333"));
+        assertNotNull(system.getMovie("S333"));
+
+        system.getUsers().remove(2);
+        system.getUsers().remove(1);
+        assertTrue(system.removeMovie("U222"));
+        assertEquals(List.of("Speed"), system.getUsers().get(0).getRecommendedMoviesTitles());
+    }
+
+    @Test
+    void addMovieAfterSnapshotLoadChecksLoadedIdsTest() throws IOException {
+        String snapshotFile = "test_system.snapshot";
+        Files.write(Paths.get(movieTestTXT), Arrays.asList("The Matrix, TM123", "Action, Sci-Fi"));
+        Files.write(Paths.get(userTestTXT), Arrays.asList("Farah Haitham, 987654321", "TM123"));
+
+        try {
+            system.loadValidatedData(movieTestTXT, userTestTXT, snapshotFile);
+            MovieRecommendationSystem reloaded = new MovieRecommendationSystem();
+            reloaded.loadValidatedData(movieTestTXT, userTestTXT, snapshotFile);
+
+            assertFalse(reloaded.addMovie(new Movie("The Matrix", "TM123", new ArrayList<>(List.of("Action")))));
+            assertTrue(reloaded.addMovie(new Movie("Heat", "H456", new ArrayList<>(List.of("Action")))));
+            assertEquals(2, reloaded.getMovies().size());
+        } finally {
+            Files.deleteIfExists(Paths.get(snapshotFile));
+        }
+    }
+
+    @Test
+    void addMovieAfterValidateAllDataChecksFailedMovieIdsTest() {
+        system.setMovies(new ArrayList<>(List.of(
+            new Movie("Heat", "H456", List.of("Action")),
+            new Movie("the matrix", "TM123", List.of("Action")))));
+        system.setUsers(new ArrayList<>());
+
+        assertEquals(1, system.validateAllData().getTotalCount());
+        assertFalse(system.addMovie(new Movie("Up", "U123", new ArrayList<>(List.of("Comedy")))));
+        assertTrue(system.addMovie(new Movie("Up", "U789", new ArrayList<>(List.of("Comedy")))));
+    }
+
+    @Test
+    void offHeapCatalogRejectsChangesTest() {
+        List<Movie> movies = new ArrayList<>(List.of(new Movie("Heat", "H456", List.of("Action"))));
+        try (MovieCatalog catalog = MovieCatalog.of(movies, GenreDictionary.index(movies))) {
+            system.setMovieCatalog(catalog);
+
+            assertThrows(IllegalStateException.class, () -> system.addMovie(new Movie("The Matrix", "TM123", List.of("Action"))));
+            assertThrows(IllegalStateException.class, () -> system.removeMovie("H456"));
+        }
+    }
+
+    private final List<String> deltaMovies = Arrays.asList(
+        "Inception, I123",
+        "Sci-Fi, Thriller",
+        "The Matrix, TM456",
+        "Action, Sci-Fi",
+        "Interstellar, I789",
+        "Sci-Fi, Drama",
+        "The Dark Knight, TDK234",
+        "Action, Crime"
+    );
+
+    // One delta run over fresh system state, as main does it
+    private int deltaRun(RecommendationMode mode, List<String> usersData, String stateFile) throws IOException {
+        Files.write(Paths.get(userTestTXT), usersData);
+        MovieRecommendationSystem run = new MovieRecommendationSystem();
+        run.setRecommendationMode(mode);
+        run.loadData(movieTestTXT, userTestTXT);
+        run.validateData();
+        run.compactUsers();
+        return run.writeRecommendedMoviesDelta(movieTestTXT, recTestTXT, stateFile);
+    }
+
+    private List<String> fullRunOutput(RecommendationMode mode, String fullTXT) throws IOException {
+        MovieRecommendationSystem run = new MovieRecommendationSystem();
+        run.setRecommendationMode(mode);
+        run.loadData(movieTestTXT, userTestTXT);
+        run.validateData();
+        run.createRecommendedMovies();
+        run.writeRecommendedMovies(fullTXT);
+        return Files.readAllLines(Paths.get(fullTXT));
+    }
+
+    @Test
+    void deltaRunRecomputesOnlyChangedUsersTest() throws IOException {
+        String stateFile = "test_recommendations.state";
+        String fullTXT = "test_full_recommendations.txt";
+        Files.write(Paths.get(movieTestTXT), deltaMovies);
+        List<String> usersData = Arrays.asList(
+            "Farah Haitham, 987654321",
+            "I123",
+            "Omar Ali, 33333333C",
+            "TDK234",
+            "Mona Adel, 11111111A",
+            "I789, TM456",
+            "Sara Nabil, 22222222B",
+            "TM456"
+        );
+
+        try {
+            for (RecommendationMode mode : new RecommendationMode[] {RecommendationMode.GENRE, RecommendationMode.BITSET, RecommendationMode.RANKED}) {
+                Files.deleteIfExists(Paths.get(stateFile));
+                assertEquals(4, deltaRun(mode, usersData, stateFile));
+                assertEquals(fullRunOutput(mode, fullTXT), Files.readAllLines(Paths.get(recTestTXT)));
+
+                assertEquals(0, deltaRun(mode, usersData, stateFile));
+                assertEquals(fullRunOutput(mode, fullTXT), Files.readAllLines(Paths.get(recTestTXT)));
+
+                // Omar changes his likes, Mona is removed, Salma is added and Farah is renamed
+                List<String> changed = Arrays.asList(
+                    "Farah Hassan, 987654321",
+                    "I123",
+                    "Omar Ali, 33333333C",
+                    "TDK234, I123",
+                    "Sara Nabil, 22222222B",
+                    "TM456",
+                    "Salma Adel, 44444444D",
+                    "I789"
+                );
+                assertEquals(3, deltaRun(mode, changed, stateFile));
+                assertEquals(fullRunOutput(mode, fullTXT), Files.readAllLines(Paths.get(recTestTXT)));
+
+                assertEquals(0, deltaRun(mode, changed, stateFile));
+                assertEquals(fullRunOutput(mode, fullTXT), Files.readAllLines(Paths.get(recTestTXT)));
+            }
+        } finally {
+            Files.deleteIfExists(Paths.get(stateFile));
+            Files.deleteIfExists(Paths.get(fullTXT));
+        }
+    }
+
+    @Test
+    void deltaRunRecomputesEveryoneForSharedModelsTest() throws IOException {
+        String stateFile = "test_recommendations.state";
+        Files.write(Paths.get(movieTestTXT), deltaMovies);
+        List<String> usersData = Arrays.asList(
+            "Farah Haitham, 987654321",
+            "I123, TM456",
+            "Omar Ali, 33333333C",
+            "I123, TM456, I789",
+            "Mona Adel, 11111111A",
+            "I123, TDK234"
+        );
+
+        try {
+            assertEquals(3, deltaRun(RecommendationMode.COLLABORATIVE, usersData, stateFile));
+            assertEquals(0, deltaRun(RecommendationMode.COLLABORATIVE, usersData, stateFile));
+            // Removing Mona changes what the others are recommended
+            assertEquals(2, deltaRun(RecommendationMode.COLLABORATIVE, usersData.subList(0, 4), stateFile));
+            assertEquals(Arrays.asList("Farah Haitham, 987654321", "Interstellar", "Omar Ali, 33333333C", ""),
+                Files.readAllLines(Paths.get(recTestTXT)));
+        } finally {
+            Files.deleteIfExists(Paths.get(stateFile));
+        }
+    }
+
+    @Test
+    void deltaRunDiscardsStaleStateTest() throws IOException {
+        String stateFile = "test_recommendations.state";
+        Files.write(Paths.get(movieTestTXT), deltaMovies);
+        List<String> usersData = Arrays.asList(
+            "Farah Haitham, 987654321",
+            "I123",
+            "Omar Ali, 33333333C",
+            "TDK234"
+        );
+
+        try {
+            assertEquals(2, deltaRun(RecommendationMode.RANKED, usersData, stateFile));
+
+            // Edited output
+            List<String> output = Files.readAllLines(Paths.get(recTestTXT));
+            Files.write(Paths.get(recTestTXT), output.subList(0, 2));
+            assertEquals(2, deltaRun(RecommendationMode.RANKED, usersData, stateFile));
+            assertEquals(output, Files.readAllLines(Paths.get(recTestTXT)));
+
+            // Other engine settings
+            assertEquals(2, deltaRun(RecommendationMode.GENRE, usersData, stateFile));
+
+            // Changed catalog
+            List<String> movies = new ArrayList<>(deltaMovies);
+            movies.addAll(Arrays.asList("Heat, H567", "Action, Crime"));
+            Files.write(Paths.get(movieTestTXT), movies);
+            assertEquals(2, deltaRun(RecommendationMode.GENRE, usersData, stateFile));
+            assertEquals(0, deltaRun(RecommendationMode.GENRE, usersData, stateFile));
+
+            // An error replaces the output, so the next valid run starts over
+            assertEquals(-1, deltaRun(RecommendationMode.GENRE, Arrays.asList("Farah Haitham, 987654321", "X999"), stateFile));
+            assertEquals(Arrays.asList("ERROR: User 987654321 liked movie IDs not in movies: X999"), Files.readAllLines(Paths.get(recTestTXT)));
+            assertEquals(2, deltaRun(RecommendationMode.GENRE, usersData, stateFile));
+        } finally {
+            Files.deleteIfExists(Paths.get(stateFile));
+        }
+    }
 }
@@ -37,4 +37,16 @@ class MovieTest {
         assertTrue(movie.getMovieGenres().contains("Drama"));
         assertEquals(2, movie.getMovieGenres().size());
     }
+
+    @Test
+    void genreIdsTest() {
+        Movie movie = new Movie("Inception", "I123", List.of("Sci-Fi", "Action"));
+        assertNull(movie.getGenreIds());
+
+        movie.setGenreIds(new int[] {4, 2});
+        assertArrayEquals(new int[] {4, 2}, movie.getGenreIds());
+
+        movie.setMovieGenres(List.of("Drama"));
+        assertNull(movie.getGenreIds());
+    }
 }
@@ -0,0 +1,76 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class RecommendationBenchmark {
+    private static final String[] GENRES = {
+        "Action", "Adventure", "Animation", "Comedy", "Crime", "Documentary", "Drama", "Family",
+        "Fantasy", "History", "Horror", "Music", "Mystery", "Romance", "Sci-Fi", "Thriller", "War", "Western"
+    };
+
+    static List<Movie> generateMovies(int count, Random random) {
+        List<Movie> movies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<String> genres = new ArrayList<>();
+            int genreCount = 1 + random.nextInt(3);
+            while (genres.size() < genreCount) {
+                String genre = GENRES[random.nextInt(GENRES.length)];
+                if (!genres.contains(genre)) genres.add(genre);
+            }
+            movies.add(new Movie("Movie " + i, "M" + i, genres));
+        }
+        return movies;
+    }
+
+    static List<User> generateUsers(int count, int likesPerUser, List<Movie> movies, Random random) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<String> liked = new ArrayList<>(likesPerUser);
+            for (int j = 0; j < likesPerUser; j++) {
+                liked.add(movies.get(random.nextInt(movies.size())).getMovieId());
+            }
+            users.add(new User("User", String.format("%09d", i), liked));
+        }
+        return users;
+    }
+
+    static long time(MovieRecommendationSystem system, RecommendationMode mode, int rounds) {
+        system.setRecommendationMode(mode);
+        system.createRecommendedMovies();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            system.createRecommendedMovies();
+        }
+        return (System.nanoTime() - start) / rounds;
+    }
+
+    public static void main(String[] args) {
+        int movieCount = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int userCount = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int likesPerUser = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        boolean parallel = args.length > 3 && Boolean.parseBoolean(args[3]);
+        int rounds = 5;
+
+        Random random = new Random(42);
+        List<Movie> movies = generateMovies(movieCount, random);
+        List<User> users = generateUsers(userCount, likesPerUser, movies, random);
+
+        MovieRecommendationSystem system = new MovieRecommendationSystem();
+        system.setMovies(movies);
+        system.setUsers(users);
+        system.setParallel(parallel);
+
+        System.out.println("movies=" + movieCount + " users=" + userCount + " likes/user=" + likesPerUser
+            + " parallel=" + parallel + " cores=" + Runtime.getRuntime().availableProcessors());
+        for (RecommendationMode mode : RecommendationMode.values()) {
+            long nanos = time(system, mode, rounds);
+            System.out.printf("%-14s %10.2f ms/run%n", mode, nanos / 1e6);
+        }
+
+        system.setRecommendationCacheEnabled(true);
+        long nanos = time(system, RecommendationMode.GENRE, rounds);
+        System.out.printf("%-14s %10.2f ms/run (hit ratio %.2f)%n", "GENRE+memo", nanos / 1e6,
+            system.getRecommendationCache().getHitRatio());
+    }
+}
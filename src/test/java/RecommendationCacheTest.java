@@ -0,0 +1,51 @@
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecommendationCacheTest {
+
+    @Test
+    void countsHitsAndMissesTest() {
+        RecommendationCache cache = new RecommendationCache();
+        AtomicInteger computed = new AtomicInteger();
+
+        int[] first = cache.get(new int[] {1, 2}, genres -> { computed.incrementAndGet(); return new int[] {7, 8}; });
+        int[] second = cache.get(new int[] {1, 2}, genres -> { computed.incrementAndGet(); return new int[] {9}; });
+        cache.get(new int[] {2, 1}, genres -> { computed.incrementAndGet(); return new int[] {8, 7}; });
+
+        assertArrayEquals(new int[] {7, 8}, first);
+        assertSame(first, second);
+        assertEquals(2, computed.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(1 / 3.0, cache.getHitRatio(), 1e-9);
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void stopsStoringAtCapacityTest() {
+        RecommendationCache cache = new RecommendationCache(1);
+        cache.get(new int[] {1}, genres -> new int[] {1});
+        int[] uncached = cache.get(new int[] {2}, genres -> new int[] {2});
+        cache.get(new int[] {2}, genres -> new int[] {2});
+
+        assertArrayEquals(new int[] {2}, uncached);
+        assertEquals(1, cache.size());
+        assertEquals(0, cache.getHits());
+        assertEquals(3, cache.getMisses());
+    }
+
+    @Test
+    void clearResetsEntriesAndCountersTest() {
+        RecommendationCache cache = new RecommendationCache();
+        cache.get(new int[] {3}, genres -> new int[0]);
+        cache.get(new int[] {3}, genres -> new int[0]);
+
+        cache.clear();
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.getMisses());
+        assertEquals(0, cache.getHitRatio());
+    }
+}
@@ -0,0 +1,68 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecommendationStateTest {
+
+    private static final String STATE_FILE = "test_recommendation.state";
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(Paths.get(STATE_FILE));
+    }
+
+    @Test
+    void writeAndReadStateTest() throws IOException {
+        List<User> users = Arrays.asList(
+            new User("Ahmed Hassan", "111111111", Arrays.asList("I123", "TM456")),
+            new User("Mona Samy", "15256987L", Arrays.asList(""))
+        );
+
+        RecommendationState.of(7L, "GENRE 10", users).write(STATE_FILE, 42L);
+        RecommendationState state = RecommendationState.read(STATE_FILE, 7L, "GENRE 10", 42L);
+
+        assertEquals(2, state.size());
+        assertEquals(7L, state.getCatalogVersion());
+        assertEquals("GENRE 10", state.getSettings());
+        assertTrue(state.isUnchanged(new User("Ahmed Hassan", "111111111", Arrays.asList("I123", "TM456"))));
+        assertTrue(state.isUnchanged(new User("Mona Samy", "15256987L", Arrays.asList(""))));
+        assertFalse(state.isUnchanged(new User("Omar Ali", "33333333C", Arrays.asList("I123"))));
+    }
+
+    @Test
+    void fingerprintCoversEveryFieldTest() {
+        long fingerprint = RecommendationState.fingerprint(new User("Ahmed Hassan", "111111111", Arrays.asList("I123", "TM456")));
+
+        assertEquals(fingerprint, RecommendationState.fingerprint(new User("Ahmed Hassan", "111111111", Arrays.asList("I123", "TM456"))));
+        assertNotEquals(fingerprint, RecommendationState.fingerprint(new User("Ahmed Hasan", "111111111", Arrays.asList("I123", "TM456"))));
+        assertNotEquals(fingerprint, RecommendationState.fingerprint(new User("Ahmed Hassan", "111111112", Arrays.asList("I123", "TM456"))));
+        assertNotEquals(fingerprint, RecommendationState.fingerprint(new User("Ahmed Hassan", "111111111", Arrays.asList("TM456", "I123"))));
+        assertNotEquals(fingerprint, RecommendationState.fingerprint(new User("Ahmed Hassan", "111111111", Arrays.asList("I123", "TM456", ""))));
+        // Field boundaries count, not just the characters
+        assertNotEquals(RecommendationState.fingerprint(new User("A", "B", Arrays.asList("C"))),
+            RecommendationState.fingerprint(new User("A", "", Arrays.asList("BC"))));
+    }
+
+    @Test
+    void readStaleStateTest() throws IOException {
+        RecommendationState.of(7L, "GENRE 10", Arrays.asList()).write(STATE_FILE, 42L);
+
+        assertNotNull(RecommendationState.read(STATE_FILE, 7L, "GENRE 10", 42L));
+        assertNull(RecommendationState.read(STATE_FILE, 8L, "GENRE 10", 42L));
+        assertNull(RecommendationState.read(STATE_FILE, 7L, "RANKED 10", 42L));
+        assertNull(RecommendationState.read(STATE_FILE, 7L, "GENRE 10", 43L));
+        assertNull(RecommendationState.read("missing.state", 7L, "GENRE 10", 42L));
+    }
+
+    @Test
+    void readCorruptedStateTest() throws IOException {
+        Files.write(Paths.get(STATE_FILE), new byte[] {0x4D, 0x52, 0x52, 0x44, 0, 0});
+
+        assertNull(RecommendationState.read(STATE_FILE, 7L, "GENRE 10", 42L));
+    }
+}
@@ -0,0 +1,61 @@
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.io.StringReader;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecordReaderTest {
+
+    @Test
+    void readRecordsTest() throws IOException {
+        try (RecordReader reader = new RecordReader(new StringReader("Inception, I123\nSci-Fi, Thriller\nThe Matrix, TM456\nAction\n"))) {
+            LineRecord first = reader.next();
+            assertEquals("Inception, I123", first.getHeaderLine());
+            assertEquals("Sci-Fi, Thriller", first.getDetailLine());
+            assertEquals(1, first.getLineNumber());
+
+            LineRecord second = reader.next();
+            assertEquals("The Matrix, TM456", second.getHeaderLine());
+            assertEquals("Action", second.getDetailLine());
+            assertEquals(3, second.getLineNumber());
+
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void readRecordsWithEmptyLinesTest() throws IOException {
+        try (RecordReader reader = new RecordReader(new StringReader("Ahmed Hassan, 111111111\n\n\nI123\n"))) {
+            LineRecord first = reader.next();
+            assertEquals("", first.getDetailLine());
+
+            LineRecord second = reader.next();
+            assertEquals("", second.getHeaderLine());
+            assertEquals("I123", second.getDetailLine());
+            assertEquals(3, second.getLineNumber());
+        }
+    }
+
+    @Test
+    void readRecordsDropsIncompleteRecordTest() throws IOException {
+        try (RecordReader reader = new RecordReader(new StringReader("Inception, I123\nSci-Fi\nThe Matrix, TM456"))) {
+            assertNotNull(reader.next());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void readEmptyInputTest() throws IOException {
+        try (RecordReader reader = new RecordReader(new StringReader(""))) {
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void openRecordsTest() throws IOException {
+        try (RecordReader reader = new FileManager().openRecords("src/test/files/movies.txt")) {
+            LineRecord first = reader.next();
+            assertEquals("Inception, I123", first.getHeaderLine());
+            assertEquals("Sci-Fi, Thriller", first.getDetailLine());
+        }
+    }
+}
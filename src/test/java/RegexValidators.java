@@ -0,0 +1,70 @@
+import java.util.Set;
+
+// The String.matches based checks Validators used before switching to character scanning,
+// kept as the reference for equivalence tests and ValidatorsBenchmark
+class RegexValidators {
+
+    static boolean validUserName(String userName) {
+        if (userName == null || userName.trim().isEmpty()) return false;
+        if (userName.charAt(0) == ' ') return false;
+        return userName.matches("^[A-Za-z]+( [A-Za-z]+)*$");
+    }
+
+    static boolean validUserIdFormat(String userId) {
+        if (userId == null || userId.trim().isEmpty() || userId.length() != 9) return false;
+        return userId.matches("^\\d{8}[A-Za-z]?$|^\\d{9}$");
+    }
+
+    static boolean validMovieTitle(String movieTitle) {
+        if (movieTitle == null || movieTitle.trim().isEmpty()) return false;
+        if (movieTitle.charAt(0) == ' ' || movieTitle.charAt(movieTitle.length() - 1) == ' ') return false;
+        return movieTitle.matches("^([A-Z][a-zA-Z0-9]*)( [A-Z][a-zA-Z0-9]*)*$");
+    }
+
+    static boolean validMovieIdLetters(String movieId, String title) {
+        if (movieId == null || movieId.trim().isEmpty()) return false;
+
+        for (int i = 0; i < movieId.length(); i++) {
+            if (!Character.isLetterOrDigit(movieId.charAt(i))) return false;
+        }
+
+        String expectedStart = title.replaceAll("[^A-Z]", "");
+
+        int firstDigitIndex = -1;
+        for (int i = 0; i < movieId.length(); i++) {
+            if (Character.isDigit(movieId.charAt(i))) {
+                firstDigitIndex = i;
+                break;
+            }
+        }
+        if (firstDigitIndex == -1) return false;
+
+        return movieId.substring(0, firstDigitIndex).equals(expectedStart);
+    }
+
+    static boolean validMovieIdUniqueNumbers(String movieId, String title) {
+        if (movieId == null || movieId.trim().isEmpty()) return false;
+
+        int firstDigitIndex = -1;
+        for (int i = 0; i < movieId.length(); i++) {
+            if (Character.isDigit(movieId.charAt(i))) {
+                firstDigitIndex = i;
+                break;
+            }
+        }
+        if (firstDigitIndex == -1) return false;
+
+        return movieId.substring(firstDigitIndex).matches("\\d{3}");
+    }
+
+    static boolean validMovieId(String movieId, String title, Set<String> moviesIds) {
+        if (!validMovieIdLetters(movieId, title) || !validMovieIdUniqueNumbers(movieId, title)) return false;
+        if (moviesIds.contains(movieId)) return false;
+
+        String currentDigits = movieId.substring(movieId.length() - 3);
+        for (String existingId : moviesIds) {
+            if (existingId.substring(existingId.length() - 3).equals(currentDigits)) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,69 @@
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKHeapTest {
+
+    private final String[] titles = {"Heat", "Alien", "Heat", "Brazil", "Alien", "Clue"};
+
+    @Test
+    void keepsBestByScoreTest() {
+        TopKHeap heap = new TopKHeap(2, i -> titles[i]);
+        heap.offer(0, 1);
+        heap.offer(1, 3);
+        heap.offer(3, 2);
+        heap.offer(5, 1);
+
+        assertEquals(2, heap.size());
+        assertArrayEquals(new int[] {1, 3}, heap.drainBestFirst());
+        assertEquals(0, heap.size());
+    }
+
+    @Test
+    void tiesBreakByTitleThenIndexTest() {
+        TopKHeap heap = new TopKHeap(4, i -> titles[i]);
+        for (int i = titles.length - 1; i >= 0; i--) {
+            heap.offer(i, 1);
+        }
+
+        assertArrayEquals(new int[] {1, 4, 3, 5}, heap.drainBestFirst());
+    }
+
+    @Test
+    void zeroCapacityTest() {
+        TopKHeap heap = new TopKHeap(0, i -> titles[i]);
+        heap.offer(0, 5);
+
+        assertEquals(0, heap.drainBestFirst().length);
+    }
+
+    @Test
+    void matchesFullSortTest() {
+        Random random = new Random(18);
+        String[] names = new String[2000];
+        int[] scores = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = "Title" + random.nextInt(300);
+            scores[i] = random.nextInt(5);
+        }
+
+        for (int k : new int[] {1, 7, 50, 1999, 5000}) {
+            TopKHeap heap = new TopKHeap(k, i -> names[i]);
+            List<Integer> all = new ArrayList<>();
+            for (int i = 0; i < names.length; i++) {
+                heap.offer(i, scores[i]);
+                all.add(i);
+            }
+            all.sort(Comparator.<Integer>comparingInt(i -> -scores[i]).thenComparing(i -> names[i]).thenComparingInt(i -> i));
+
+            int[] best = heap.drainBestFirst();
+            assertEquals(Math.min(k, names.length), best.length);
+            for (int i = 0; i < best.length; i++) {
+                assertEquals(all.get(i).intValue(), best[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Heap held by users before and after compactUsers and with recommendations stored as catalog
+// positions. Run with a large -Xmx, e.g. -Xmx4g for the default million users.
+public class UserMemoryBenchmark {
+
+    static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+
+    static void report(String label, long before, long after, int userCount) {
+        System.out.printf("%-16s %10.1f MB -> %10.1f MB  saved %6.1f bytes/user%n",
+            label, before / 1e6, after / 1e6, (before - after) / (double) userCount);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int userCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int likesPerUser = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int movieCount = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+
+        Random random = new Random(42);
+        List<Movie> movies = RecommendationBenchmark.generateMovies(movieCount, random);
+        Path usersFile = Paths.get("bench_users.txt");
+        LoadBenchmark.generateUsersFile(usersFile, userCount, likesPerUser, movieCount, random);
+
+        System.out.println("users=" + userCount + " likes/user=" + likesPerUser + " movies=" + movieCount);
+        try {
+            MovieRecommendationSystem system = new MovieRecommendationSystem();
+            system.setMovies(movies);
+            system.loadUsers(usersFile.toString());
+
+            // Recommendations as the String lists createRecommendedMovies used to store
+            system.createRecommendedMovies();
+            for (User user : system.getUsers()) {
+                user.setRecommendedMoviesTitles(new ArrayList<>(user.getRecommendedMoviesTitles()));
+            }
+            long listForm = usedHeap();
+
+            int compacted = system.compactUsers();
+            long compactLiked = usedHeap();
+            report("liked movies", listForm, compactLiked, userCount);
+
+            system.createRecommendedMovies();
+            long compactAll = usedHeap();
+            report("recommendations", compactLiked, compactAll, userCount);
+            report("total", listForm, compactAll, userCount);
+            System.out.println("compacted users=" + compacted + " errors=" + system.getErrors().size());
+        } finally {
+            Files.deleteIfExists(usersFile);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 class UserTest {
 
@@ -46,4 +48,78 @@ class UserTest {
         assertEquals(2, user.getRecommendedMoviesTitles().size());
         assertTrue(user.getRecommendedMoviesTitles().contains("Batman"));
     }
+
+    @Test
+    void compactLikedMoviesTest() {
+        List<Movie> catalog = Arrays.asList(
+            new Movie("Inception", "I123", Arrays.asList("Sci-Fi")),
+            new Movie("The Dark Knight", "TDK234", Arrays.asList("Action"))
+        );
+        User user = new User("Ahmed Mohamed", "123456789", Arrays.asList("TDK234", "I123"));
+        assertFalse(user.isCompact());
+
+        user.setLikedMovieIndices(catalog, new int[] {1, 0});
+
+        assertTrue(user.isCompact());
+        assertEquals(Arrays.asList("TDK234", "I123"), user.getLikedMoviesIds());
+        assertArrayEquals(new int[] {1, 0}, user.getLikedMovieIndices());
+
+        user.setLikedMoviesIds(Arrays.asList("I123"));
+        assertFalse(user.isCompact());
+        assertNull(user.getLikedMovieIndices());
+        assertEquals(Arrays.asList("I123"), user.getLikedMoviesIds());
+    }
+
+    @Test
+    void recommendedMovieIndicesTest() {
+        List<Movie> catalog = Arrays.asList(
+            new Movie("Inception", "I123", Arrays.asList("Sci-Fi")),
+            new Movie("The Dark Knight", "TDK234", Arrays.asList("Action"))
+        );
+        User user = new User("Ahmed Mohamed", "123456789", Arrays.asList());
+
+        user.setRecommendedMovieIndices(catalog, new int[] {1, 0});
+        assertEquals(Arrays.asList("The Dark Knight", "Inception"), user.getRecommendedMoviesTitles());
+        assertThrows(UnsupportedOperationException.class, () -> user.getRecommendedMoviesTitles().add("Heat"));
+
+        user.setRecommendedMoviesTitles(new ArrayList<>());
+        assertNull(user.getRecommendedMovieIndices());
+        assertTrue(user.getRecommendedMoviesTitles().isEmpty());
+    }
+
+    @Test
+    void removeMovieIndexTest() {
+        List<Movie> catalog = new ArrayList<>(Arrays.asList(
+            new Movie("Inception", "I123", Arrays.asList("Sci-Fi")),
+            new Movie("Heat", "H456", Arrays.asList("Crime")),
+            new Movie("The Dark Knight", "TDK234", Arrays.asList("Action"))
+        ));
+        User user = new User("Ahmed Mohamed", "123456789", Arrays.asList());
+        user.setLikedMovieIndices(catalog, new int[] {2, 0});
+        user.setRecommendedMovieIndices(catalog, new int[] {1, 2});
+
+        catalog.remove(1);
+        user.removeMovieIndex(catalog, 1);
+
+        assertArrayEquals(new int[] {1, 0}, user.getLikedMovieIndices());
+        assertEquals(Arrays.asList("TDK234", "I123"), user.getLikedMoviesIds());
+        assertEquals(Arrays.asList("The Dark Knight"), user.getRecommendedMoviesTitles());
+    }
+
+    @Test
+    void removeMovieIndexFromAnotherCatalogTest() {
+        List<Movie> catalog = new ArrayList<>(Arrays.asList(
+            new Movie("Inception", "I123", Arrays.asList("Sci-Fi")),
+            new Movie("Heat", "H456", Arrays.asList("Crime"))
+        ));
+        User user = new User("Ahmed Mohamed", "123456789", Arrays.asList());
+        user.setLikedMovieIndices(catalog, new int[] {1});
+        user.setRecommendedMovieIndices(catalog, new int[] {0});
+
+        user.removeMovieIndex(new ArrayList<>(catalog), 0);
+
+        assertNull(user.getLikedMovieIndices());
+        assertEquals(Arrays.asList("H456"), user.getLikedMoviesIds());
+        assertEquals(Arrays.asList("Inception"), user.getRecommendedMoviesTitles());
+    }
 }
@@ -0,0 +1,50 @@
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidationReportTest {
+
+    @Test
+    void emptyReportTest() {
+        ValidationReport report = new ValidationReport();
+
+        assertTrue(report.isEmpty());
+        assertEquals(ValidationReport.DEFAULT_MAX_ERRORS, report.getMaxErrors());
+        assertEquals(0, report.getTotalCount());
+        assertTrue(report.toLines().isEmpty());
+    }
+
+    @Test
+    void keepsErrorsUpToCapTest() {
+        ValidationReport report = new ValidationReport(2);
+        report.add(new ValidationError(ValidationError.RecordType.MOVIE, 0, "ERROR: a"));
+        report.add(new ValidationError(ValidationError.RecordType.USER, 3, "ERROR: b"));
+
+        assertFalse(report.isTruncated());
+        assertEquals(Arrays.asList("MOVIE #0: ERROR: a", "USER #3: ERROR: b"), report.toLines());
+    }
+
+    @Test
+    void aggregatesErrorsBeyondCapTest() {
+        ValidationReport report = new ValidationReport(1);
+        report.add(new ValidationError(ValidationError.RecordType.MOVIE, 0, "ERROR: a"));
+        report.add(new ValidationError(ValidationError.RecordType.MOVIE, 1, "ERROR: b"));
+        report.add(new ValidationError(ValidationError.RecordType.USER, 0, "ERROR: c"));
+
+        assertTrue(report.isTruncated());
+        assertEquals(3, report.getTotalCount());
+        assertEquals(2, report.getDroppedCount());
+        assertEquals(2, report.getCount(ValidationError.RecordType.MOVIE));
+        assertEquals(1, report.getCount(ValidationError.RecordType.USER));
+        assertEquals("ERROR: a", report.getErrors().get(0).getMessage());
+        assertEquals(Arrays.asList("MOVIE #0: ERROR: a", "... 2 more errors (2 movie, 1 user in total)"), report.toLines());
+    }
+
+    @Test
+    void errorsAreReadOnlyTest() {
+        ValidationReport report = new ValidationReport();
+        report.add(new ValidationError(ValidationError.RecordType.USER, 0, "ERROR: a"));
+
+        assertThrows(UnsupportedOperationException.class, () -> report.getErrors().clear());
+    }
+}
@@ -0,0 +1,48 @@
+import java.util.Random;
+import java.util.function.Predicate;
+
+public class ValidatorsBenchmark {
+
+    static String[] generateInputs(int count, Random random) {
+        String[] samples = {"John Doe", "Mary Jane Watson", "john", "John123", " John", "The Matrix", "Fast And Furious7",
+            "the Matrix", "123456789", "12345678A", "A23456789", "1234567890", "TM123", "The-Matrix"};
+        String[] inputs = new String[count];
+        for (int i = 0; i < count; i++) {
+            inputs[i] = samples[random.nextInt(samples.length)];
+        }
+        return inputs;
+    }
+
+    static void time(String label, String[] inputs, Predicate<String> validator, int rounds) {
+        int accepted = 0;
+        for (String input : inputs) {
+            if (validator.test(input)) accepted++;
+        }
+
+        long start = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            for (String input : inputs) {
+                if (validator.test(input)) accepted++;
+            }
+        }
+        double nanosPerCall = (System.nanoTime() - start) / (double) (rounds * inputs.length);
+        System.out.printf("%-28s %8.1f ns/call  %8.1f M calls/s  (%d)%n", label, nanosPerCall, 1e3 / nanosPerCall, accepted);
+    }
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int rounds = 20;
+        String[] inputs = generateInputs(count, new Random(42));
+
+        time("regex validUserName", inputs, RegexValidators::validUserName, rounds);
+        time("scan  validUserName", inputs, Validators::validUserName, rounds);
+        time("regex validUserIdFormat", inputs, RegexValidators::validUserIdFormat, rounds);
+        time("scan  validUserIdFormat", inputs, Validators::validUserIdFormat, rounds);
+        time("regex validMovieTitle", inputs, RegexValidators::validMovieTitle, rounds);
+        time("scan  validMovieTitle", inputs, Validators::validMovieTitle, rounds);
+        time("regex validMovieIdLetters", inputs, id -> RegexValidators.validMovieIdLetters(id, "The Matrix"), rounds);
+        time("scan  validMovieIdLetters", inputs, id -> Validators.validMovieIdLetters(id, "The Matrix"), rounds);
+        time("regex validMovieIdNumbers", inputs, id -> RegexValidators.validMovieIdUniqueNumbers(id, "The Matrix"), rounds);
+        time("scan  validMovieIdNumbers", inputs, id -> Validators.validMovieIdUniqueNumbers(id, "The Matrix"), rounds);
+    }
+}
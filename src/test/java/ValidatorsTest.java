@@ -1,6 +1,7 @@
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import java.util.HashSet;
+import java.util.Random;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -199,6 +200,15 @@ public class ValidatorsTest {
         assertFalse(Validators.validMovieId("TM123 ", "The Matrix", existingMovieIds));
     }
 
+    @Test
+    void validMovieIdWideNumbersTest() {
+        assertTrue(Validators.validMovieIdUniqueNumbers("TM1234567", "The Matrix", 7));
+        assertFalse(Validators.validMovieIdUniqueNumbers("TM123", "The Matrix", 7));
+        assertFalse(Validators.validMovieIdUniqueNumbers("TM12345678", "The Matrix", 7));
+        assertFalse(Validators.validMovieIdUniqueNumbers("TM12345A7", "The Matrix", 7));
+        assertTrue(Validators.validMovieIdUniqueNumbers("TM123", "The Matrix", 3));
+    }
+
     @Test
     void validMovieIdWrongLettersTest() {
         assertFalse(Validators.validMovieIdLetters("ABC123", "The Matrix"));
@@ -292,5 +302,48 @@ public class ValidatorsTest {
         assertTrue(Validators.validMovieIdUniqueNumbers("EDR145", "Evil Dead Rise"));
         assertFalse(Validators.validMovieId("EDR145", "Evil Dead Rise", existingMovieIds));
     }
-}
 
+    // ========== Equivalence With Regex Validators ==========
+
+    private static final char[] ALPHABET = {'A', 'T', 'M', 'Z', 'a', 'z', 'q', '0', '1', '5', '9', ' ', ' ', '-', '_', '\t', '\u0663', '\u00e9', '\u00c9'};
+
+    private static String randomString(Random random) {
+        char[] chars = new char[random.nextInt(12)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = ALPHABET[random.nextInt(ALPHABET.length)];
+        }
+        return new String(chars);
+    }
+
+    @Test
+    void scanningValidatorsMatchRegexValidatorsTest() {
+        Random random = new Random(7);
+        String[] titles = {"The Matrix", "Titanic", "The Dark Knight", "", "matrix", "Z"};
+        for (int i = 0; i < 200000; i++) {
+            String value = randomString(random);
+            if (i % 3 == 0 && value.length() >= 9) value = value.substring(0, 9);
+            String title = titles[i % titles.length];
+
+            assertEquals(RegexValidators.validUserName(value), Validators.validUserName(value), value);
+            assertEquals(RegexValidators.validUserIdFormat(value), Validators.validUserIdFormat(value), value);
+            assertEquals(RegexValidators.validMovieTitle(value), Validators.validMovieTitle(value), value);
+            assertEquals(RegexValidators.validMovieIdLetters(value, title), Validators.validMovieIdLetters(value, title), value);
+            assertEquals(RegexValidators.validMovieIdUniqueNumbers(value, title), Validators.validMovieIdUniqueNumbers(value, title), value);
+        }
+    }
+
+    @Test
+    void scanningValidatorsMatchRegexValidatorsOnEdgeCasesTest() {
+        String[] values = {"123456789", "12345678A", "12345678\u0663", "\u0663\u0663\u0663\u0663\u0663\u0663\u0663\u0663\u0663",
+            "TM123", "TM\u0663\u0663\u0663", "TM12\u0663", "T\u00c9M123", "TM1234", "TM12", "TM", "A", "A B", "A  B", "A B ",
+            "John\tDoe", "\tJohn", "John\t", "Ab1 Cd2", "Ab1 cd2", "\u00c9cole"};
+        for (String value : values) {
+            assertEquals(RegexValidators.validUserName(value), Validators.validUserName(value), value);
+            assertEquals(RegexValidators.validUserIdFormat(value), Validators.validUserIdFormat(value), value);
+            assertEquals(RegexValidators.validMovieTitle(value), Validators.validMovieTitle(value), value);
+            assertEquals(RegexValidators.validMovieIdLetters(value, "The Matrix"), Validators.validMovieIdLetters(value, "The Matrix"), value);
+            assertEquals(RegexValidators.validMovieIdUniqueNumbers(value, "The Matrix"), Validators.validMovieIdUniqueNumbers(value, "The Matrix"), value);
+            assertEquals(RegexValidators.validMovieId(value, "The Matrix", existingMovieIds), Validators.validMovieId(value, "The Matrix", existingMovieIds), value);
+        }
+    }
+}